@@ -23,4 +23,52 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    // Background recomputation of the admin dashboard snapshot; one refresh runs at a time anyway
+    @Bean(name = "dashboardRefreshExecutor")
+    public Executor dashboardRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("DashboardRefresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Dashboard sections run in parallel here; kept well below the connection pool size
+    @Bean(name = "dashboardQueryExecutor")
+    public Executor dashboardQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("DashboardQuery-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Bulk product imports; each one is long-running, so keep them few and queued
+    @Bean(name = "importTaskExecutor")
+    public Executor importTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("ProductImport-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Admin bulk jobs; each works in small chunks, so a couple of threads is plenty
+    @Bean(name = "adminJobExecutor")
+    public Executor adminJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("AdminJob-");
+        executor.initialize();
+        return executor;
+    }
+}
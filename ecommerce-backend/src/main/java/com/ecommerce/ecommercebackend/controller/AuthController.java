@@ -2,6 +2,7 @@ package com.ecommerce.ecommercebackend.controller;
 
 import com.ecommerce.ecommercebackend.dto.AuthRequest;
 import com.ecommerce.ecommercebackend.dto.AuthResponse;
+import com.ecommerce.ecommercebackend.dto.LogoutRequest;
 import com.ecommerce.ecommercebackend.dto.RegisterRequest;
 import com.ecommerce.ecommercebackend.entity.User;
 import com.ecommerce.ecommercebackend.security.JwtService;
@@ -43,9 +44,15 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletRequest request) {
-        // In stateless JWT, logout is handled client-side by removing the token
-        // But you could implement token blacklisting if needed
+    public ResponseEntity<Void> logout(
+            HttpServletRequest request,
+            @RequestBody(required = false) LogoutRequest body) {
+        // Revoke the access token (and the refresh token, if supplied) so they stop working before expiry.
+        // The refresh token travels in the body so it stays out of URLs and access logs.
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            authService.logout(authHeader.substring(7), body != null ? body.getRefreshToken() : null);
+        }
         return ResponseEntity.ok().build();
     }
 
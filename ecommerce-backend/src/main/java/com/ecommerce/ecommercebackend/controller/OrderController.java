@@ -8,6 +8,9 @@ import com.ecommerce.ecommercebackend.repository.OrderRepository;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
 import com.ecommerce.ecommercebackend.service.AuthService;
 import com.ecommerce.ecommercebackend.service.OrderService;
+import com.ecommerce.ecommercebackend.service.SalesRollupService;
+import com.ecommerce.ecommercebackend.service.order.OrderStatusHistoryRecorder;
+import com.ecommerce.ecommercebackend.service.search.OrderSearchIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +35,9 @@ public class OrderController {
     private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final AuthService authService;
+    private final SalesRollupService salesRollupService;
+    private final OrderStatusHistoryRecorder statusHistoryRecorder;
+    private final OrderSearchIndex orderSearchIndex;
 
     @PostMapping
     public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequestDTO request) {
@@ -187,6 +193,9 @@ public class OrderController {
 
             log.info("Attempting to save order...");
             Order savedOrder = orderRepository.save(order);
+            salesRollupService.recordOrderCreated(savedOrder, 0);
+            statusHistoryRecorder.record(savedOrder, null, "Order placed");
+            orderSearchIndex.onOrderPlaced(savedOrder);
             log.info("Order saved successfully: ID={}, Number={}",
                     savedOrder.getId(), savedOrder.getOrderNumber());
 
@@ -1,9 +1,9 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.dto.KeysetPageDTO;
 import com.ecommerce.ecommercebackend.dto.ReviewDTO;
-import com.ecommerce.ecommercebackend.entity.User;
-import com.ecommerce.ecommercebackend.repository.UserRepository;
-import com.ecommerce.ecommercebackend.security.JwtService;
+import com.ecommerce.ecommercebackend.security.CustomUserDetails;
+import com.ecommerce.ecommercebackend.service.AuthService;
 import com.ecommerce.ecommercebackend.service.ReviewService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -20,39 +20,35 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewService reviewService;
-    private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final AuthService authService;
 
-    // Helper method to get user ID from JWT token
+    // Helper method to get user ID from the principal set by JwtAuthenticationFilter
     private Long getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-
-            try {
-                String email = jwtService.extractUsername(token);
-
-                // Get user from database by email
-                return userRepository.findByEmail(email)
-                        .map(User::getId)
-                        .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-            } catch (Exception e) {
-                throw new RuntimeException("Invalid token or user not found: " + e.getMessage());
-            }
-        }
-        return null; // Return null for non-authenticated users
+        return authService.findCurrentUserDetails()
+                .map(CustomUserDetails::getUserId)
+                .orElse(null); // Return null for non-authenticated users
     }
 
-    // Get all reviews for a product
+    // Get a page of reviews for a product
+    // sortBy: newest, oldest, helpful, rating_high, rating_low; filter: all, verified, with_images;
+    // pass nextCursor back, with the same sortBy and filter, for the next page
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<ReviewDTO>> getProductReviews(
+    public ResponseEntity<?> getProductReviews(
             @PathVariable Long productId,
             @RequestParam(required = false, defaultValue = "newest") String sortBy,
+            @RequestParam(required = false, defaultValue = "all") String filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
             HttpServletRequest request) {
 
-        Long currentUserId = getUserIdFromRequest(request);
-        List<ReviewDTO> reviews = reviewService.getProductReviews(productId, sortBy, currentUserId);
-        return ResponseEntity.ok(reviews);
+        try {
+            Long currentUserId = getUserIdFromRequest(request);
+            KeysetPageDTO<ReviewDTO> reviews = reviewService.getProductReviews(productId, sortBy, filter, currentUserId,
+                    cursor, Math.max(1, Math.min(size, 100)));
+            return ResponseEntity.ok(reviews);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Get review statistics for a product
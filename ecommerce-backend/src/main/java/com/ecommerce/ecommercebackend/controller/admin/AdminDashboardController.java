@@ -1,14 +1,25 @@
 package com.ecommerce.ecommercebackend.controller.admin;
 
+import com.ecommerce.ecommercebackend.dto.admin.BulkOrderTransitionResultDTO;
 import com.ecommerce.ecommercebackend.dto.admin.DashboardStatsDTO;
 import com.ecommerce.ecommercebackend.dto.admin.OrderUpdateDTO;
+import com.ecommerce.ecommercebackend.dto.admin.RealtimeSalesDTO;
 import com.ecommerce.ecommercebackend.dto.CategoryDTO;
+import com.ecommerce.ecommercebackend.dto.KeysetPageDTO;
 import com.ecommerce.ecommercebackend.dto.OrderDTO;
 import com.ecommerce.ecommercebackend.dto.UserDTO;
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.service.AbandonedCartSweeper;
+import com.ecommerce.ecommercebackend.service.RealtimeSalesMetrics;
+import com.ecommerce.ecommercebackend.service.SalesRollupService;
 import com.ecommerce.ecommercebackend.service.admin.AdminDashboardService;
+import com.ecommerce.ecommercebackend.service.admin.AdminExportService;
 import com.ecommerce.ecommercebackend.service.admin.AdminOrderService;
 import com.ecommerce.ecommercebackend.service.admin.AdminProductService;
 import com.ecommerce.ecommercebackend.service.admin.AdminUserService;
+import com.ecommerce.ecommercebackend.service.admin.DashboardStatsCache;
+import com.ecommerce.ecommercebackend.service.analytics.OrderAnalyticsEngine;
+import com.ecommerce.ecommercebackend.service.export.ExportFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,6 +30,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
@@ -39,11 +51,17 @@ public class AdminDashboardController {
     private final AdminOrderService orderService;
     private final AdminProductService productService;
     private final AdminUserService userService;
+    private final AbandonedCartSweeper abandonedCartSweeper;
+    private final SalesRollupService salesRollupService;
+    private final RealtimeSalesMetrics realtimeSalesMetrics;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final OrderAnalyticsEngine orderAnalyticsEngine;
+    private final AdminExportService exportService;
 
     // ============= DASHBOARD =============
     @GetMapping("/dashboard/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
-        return ResponseEntity.ok(dashboardService.getDashboardStats());
+        return ResponseEntity.ok(dashboardStatsCache.get());
     }
 
     @GetMapping("/dashboard/sales-chart")
@@ -53,6 +71,12 @@ public class AdminDashboardController {
         return ResponseEntity.ok(dashboardService.getSalesChartData(start, end));
     }
 
+    // Orders and revenue for the last 5 min / 1 h / 24 h from in-memory counters
+    @GetMapping("/dashboard/realtime")
+    public ResponseEntity<RealtimeSalesDTO> getRealtimeSales() {
+        return ResponseEntity.ok(realtimeSalesMetrics.snapshot());
+    }
+
     // ============= ORDER MANAGEMENT =============
     @GetMapping("/orders")
     public ResponseEntity<Page<OrderDTO>> getAllOrders(
@@ -62,11 +86,26 @@ public class AdminDashboardController {
         return ResponseEntity.ok(orderService.getAllOrders(pageable, status, search));
     }
 
+    @GetMapping("/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return exportFormat.toResponse("orders", exportService.exportOrders(exportFormat, status, start, end));
+    }
+
     @GetMapping("/orders/{id}")
     public ResponseEntity<OrderDTO> getOrderDetails(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrderDetails(id));
     }
 
+    @GetMapping("/orders/{id}/history")
+    public ResponseEntity<List<Map<String, Object>>> getOrderStatusHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getOrderStatusHistory(id));
+    }
+
     @PutMapping("/orders/{id}/status")
     public ResponseEntity<OrderDTO> updateOrderStatus(
             @PathVariable Long id,
@@ -80,7 +119,7 @@ public class AdminDashboardController {
     }
 
     @PostMapping("/orders/bulk-status-update")
-    public ResponseEntity<List<OrderDTO>> bulkUpdateOrderStatus(
+    public ResponseEntity<BulkOrderTransitionResultDTO> bulkUpdateOrderStatus(
             @RequestBody List<Long> orderIds,
             @RequestParam String status) {
         return ResponseEntity.ok(orderService.bulkUpdateOrderStatus(orderIds, status));
@@ -119,6 +158,22 @@ public class AdminDashboardController {
         return ResponseEntity.ok(userService.getAllUsers(pageable, role, search));
     }
 
+    // Keyset alternative to /users for deep scrolling: pass back nextCursor for the following page
+    @GetMapping("/users/scroll")
+    public ResponseEntity<KeysetPageDTO<UserDTO>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String search) {
+        return ResponseEntity.ok(userService.getAllUsers(cursor, Math.max(1, Math.min(size, 100)), role, search));
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return exportFormat.toResponse("users", exportService.exportUsers(exportFormat));
+    }
+
     @GetMapping("/users/{id}")
     public ResponseEntity<UserDTO> getUserDetails(@PathVariable Long id) {
         return ResponseEntity.ok(userService.getUserDetails(id));
@@ -156,6 +211,26 @@ public class AdminDashboardController {
         return ResponseEntity.ok(dashboardService.getTopProducts(limit));
     }
 
+    @GetMapping("/reports/top-customers")
+    public ResponseEntity<List<Map<String, Object>>> getTopCustomers(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userService.getTopCustomers(limit));
+    }
+
+    @GetMapping("/reports/orders")
+    public ResponseEntity<List<Map<String, Object>>> getOrdersByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(orderService.getOrdersByDateRange(start, end));
+    }
+
+    @GetMapping("/reports/time-in-status")
+    public ResponseEntity<List<Map<String, Object>>> getTimeInStatusReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(orderService.getTimeInStatusReport(start, end));
+    }
+
     @GetMapping("/reports/inventory")
     public ResponseEntity<Map<String, Object>> getInventoryReport() {
         return ResponseEntity.ok(dashboardService.getInventoryReport());
@@ -172,4 +247,30 @@ public class AdminDashboardController {
     public ResponseEntity<List<com.ecommerce.ecommercebackend.dto.ProductDTO>> getOutOfStockProducts() {
         return ResponseEntity.ok(productService.getOutOfStockProducts());
     }
-}
\ No newline at end of file
+
+    // ============= MAINTENANCE =============
+    @GetMapping("/maintenance/cart-sweeper")
+    public ResponseEntity<Map<String, Object>> getCartSweeperStats() {
+        return ResponseEntity.ok(abandonedCartSweeper.getStats());
+    }
+
+    @PostMapping("/maintenance/cart-sweeper/run")
+    public ResponseEntity<Map<String, Object>> runCartSweeper() {
+        return ResponseEntity.ok(abandonedCartSweeper.sweep());
+    }
+
+    @GetMapping("/maintenance/analytics-snapshot")
+    public ResponseEntity<Map<String, Object>> getAnalyticsSnapshotStatus() {
+        return ResponseEntity.ok(orderAnalyticsEngine.getStatus());
+    }
+
+    @PostMapping("/maintenance/analytics-snapshot/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAnalyticsSnapshot() {
+        return ResponseEntity.ok(orderAnalyticsEngine.rebuild());
+    }
+
+    @PostMapping("/maintenance/sales-rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSalesRollup() {
+        return ResponseEntity.ok(Map.of("rows", salesRollupService.rebuild()));
+    }
+}
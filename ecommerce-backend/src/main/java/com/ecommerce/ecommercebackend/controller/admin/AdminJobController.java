@@ -0,0 +1,68 @@
+package com.ecommerce.ecommercebackend.controller.admin;
+
+import com.ecommerce.ecommercebackend.dto.admin.AdminJobDTO;
+import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateDTO;
+import com.ecommerce.ecommercebackend.entity.AdminJob;
+import com.ecommerce.ecommercebackend.service.admin.AdminJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdminJobController {
+
+    private final AdminJobService jobService;
+
+    @GetMapping
+    public ResponseEntity<Page<AdminJobDTO>> getJobs(
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(required = false) AdminJob.JobStatus status) {
+        return ResponseEntity.ok(jobService.getJobs(status, pageable));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AdminJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.getJob(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<AdminJobDTO> cancelJob(@PathVariable Long id) {
+        log.info("Cancelling admin job {}", id);
+        return ResponseEntity.ok(jobService.cancelJob(id));
+    }
+
+    // ============= SUBMIT =============
+    @PostMapping("/products/bulk-delete")
+    public ResponseEntity<AdminJobDTO> submitProductDelete(@RequestBody List<Long> productIds) {
+        log.info("Submitting bulk delete job for {} products", productIds.size());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submitProductDelete(productIds));
+    }
+
+    @PostMapping("/products/bulk-update")
+    public ResponseEntity<AdminJobDTO> submitProductUpdate(@RequestBody ProductBulkUpdateDTO bulkUpdateDTO) {
+        log.info("Submitting bulk update job for {} products",
+                bulkUpdateDTO.getProductIds() != null ? bulkUpdateDTO.getProductIds().size() : 0);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submitProductUpdate(bulkUpdateDTO));
+    }
+
+    @PostMapping("/orders/bulk-status-update")
+    public ResponseEntity<AdminJobDTO> submitOrderStatusUpdate(
+            @RequestBody List<Long> orderIds,
+            @RequestParam String status) {
+        log.info("Submitting bulk status job for {} orders to {}", orderIds.size(), status);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submitOrderStatusUpdate(orderIds, status));
+    }
+}
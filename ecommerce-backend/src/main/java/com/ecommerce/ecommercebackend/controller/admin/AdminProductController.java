@@ -3,7 +3,12 @@ package com.ecommerce.ecommercebackend.controller.admin;
 import com.ecommerce.ecommercebackend.dto.CategoryDTO;
 import com.ecommerce.ecommercebackend.dto.ProductDTO;
 import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateDTO;
+import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateResultDTO;
+import com.ecommerce.ecommercebackend.dto.admin.ProductImportStatusDTO;
+import com.ecommerce.ecommercebackend.service.admin.AdminExportService;
 import com.ecommerce.ecommercebackend.service.admin.AdminProductService;
+import com.ecommerce.ecommercebackend.service.export.ExportFormat;
+import com.ecommerce.ecommercebackend.service.importer.ProductImportService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -18,8 +23,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +41,8 @@ import java.util.Map;
 public class AdminProductController {
 
     private final AdminProductService productService;
+    private final AdminExportService exportService;
+    private final ProductImportService importService;
     private final ObjectMapper objectMapper;  // Spring Boot auto-configures this
 
     @GetMapping
@@ -94,9 +104,11 @@ public class AdminProductController {
     }
 
     @PostMapping("/bulk/update")
-    public ResponseEntity<List<ProductDTO>> bulkUpdateProducts(@Valid @RequestBody ProductBulkUpdateDTO bulkUpdateDTO) {
-        log.info("Bulk updating products: {}", bulkUpdateDTO);
-        return ResponseEntity.ok(productService.bulkUpdateProducts(bulkUpdateDTO));
+    public ResponseEntity<ProductBulkUpdateResultDTO> bulkUpdateProducts(
+            @Valid @RequestBody ProductBulkUpdateDTO bulkUpdateDTO,
+            @RequestParam(defaultValue = "false") boolean includeProducts) {
+        log.info("Bulk updating {} products", bulkUpdateDTO.getProductIds() != null ? bulkUpdateDTO.getProductIds().size() : 0);
+        return ResponseEntity.ok(productService.bulkUpdateProducts(bulkUpdateDTO, includeProducts));
     }
 
     @PostMapping("/{id}/toggle-status")
@@ -113,12 +125,40 @@ public class AdminProductController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<List<ProductDTO>> exportProducts(
+    public ResponseEntity<StreamingResponseBody> exportProducts(
             @RequestParam(required = false) String format,
             @RequestParam(required = false) List<Long> productIds) {
 
         log.info("Exporting products in format: {}", format);
-        return ResponseEntity.ok(productService.exportProducts(productIds));
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return exportFormat.toResponse("products", exportService.exportProducts(exportFormat, productIds));
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
+    public ResponseEntity<ProductImportStatusDTO> importProducts(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+
+        log.info("Importing products from file: {}", file.getOriginalFilename());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(importService.startImport(file, format));
+    }
+
+    // Same import with the file as the request body, for files above the multipart size limit
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ProductImportStatusDTO> importProductsFromBody(
+            HttpServletRequest request,
+            @RequestParam(required = false) String fileName,
+            @RequestParam(required = false) String format) throws IOException {
+
+        log.info("Importing products from request body: {} ({} bytes)", fileName, request.getContentLengthLong());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(importService.startImport(request.getInputStream(), fileName, format, request.getContentType()));
+    }
+
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ProductImportStatusDTO> getImportStatus(@PathVariable String importId) {
+        return ResponseEntity.ok(importService.getImportStatus(importId));
     }
 
     @GetMapping("/categories")
@@ -0,0 +1,18 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; pass nextCursor back to get the page after it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageDTO<T> {
+    private List<T> content;
+    private Integer size;
+    private String nextCursor;      // null on the last page
+    private Boolean hasNext;
+}
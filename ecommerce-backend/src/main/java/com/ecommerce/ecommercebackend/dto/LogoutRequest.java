@@ -0,0 +1,10 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.Data;
+
+@Data
+public class LogoutRequest {
+
+    // Optional; revoked along with the access token when present
+    private String refreshToken;
+}
@@ -115,9 +115,7 @@ public class OrderDTO {
         }
 
         // Check if order can be cancelled
-        this.canBeCancelled = status == Order.OrderStatus.PENDING ||
-                status == Order.OrderStatus.PROCESSING ||
-                status == Order.OrderStatus.CONFIRMED;
+        this.canBeCancelled = status != null && status.isCancellableByCustomer();
 
         // Check if order can be reviewed (delivered orders)
         this.canBeReviewed = status == Order.OrderStatus.DELIVERED;
@@ -0,0 +1,27 @@
+package com.ecommerce.ecommercebackend.dto.admin;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AdminJobDTO {
+    private Long id;
+    private String type;
+    private String status;          // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+
+    private Integer totalItems;
+    private Integer processedItems;
+    private Integer succeededItems;
+    private Integer failedItems;
+    private Integer percentComplete;
+
+    private Boolean cancelRequested;
+    private String errorMessage;
+    private String createdBy;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+}
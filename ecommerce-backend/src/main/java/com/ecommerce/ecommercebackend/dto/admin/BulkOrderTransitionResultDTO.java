@@ -0,0 +1,38 @@
+package com.ecommerce.ecommercebackend.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BulkOrderTransitionResultDTO {
+    private String targetStatus;
+    private Integer requested;      // distinct ids in the request
+    private Integer transitioned;
+    private Integer unchanged;      // already in the target status
+    private Integer notFound;
+    private Integer rejected;       // transition not allowed from the current status
+
+    // First rejected orders; rejectionsTruncated is set once the cap is reached
+    private List<Rejection> rejections;
+    private Boolean rejectionsTruncated;
+
+    // Side effects
+    private Integer productsRestocked;
+    private Long unitsRestocked;
+    private Integer emailsQueued;
+
+    private Long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+        private Long orderId;
+        private String orderNumber;
+        private String currentStatus;
+        private String reason;
+    }
+}
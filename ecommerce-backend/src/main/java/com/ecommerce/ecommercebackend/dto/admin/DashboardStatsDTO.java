@@ -30,6 +30,10 @@ public class DashboardStatsDTO {
     private Map<String, Long> ordersByStatus;
     private Map<String, Long> productsByCategory;
 
+    // How long each section took (ms) and which ones failed or timed out
+    private Map<String, Long> sectionTimings;
+    private List<String> degradedSections;
+
     @Data
     public static class RecentOrderDTO {
         private Long id;
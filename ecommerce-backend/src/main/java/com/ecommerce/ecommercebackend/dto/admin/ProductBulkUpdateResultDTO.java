@@ -0,0 +1,20 @@
+package com.ecommerce.ecommercebackend.dto.admin;
+
+import com.ecommerce.ecommercebackend.dto.ProductDTO;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductBulkUpdateResultDTO {
+    private Integer requested;      // distinct ids in the request
+    private Integer matched;        // ids that exist and were updated
+    private Integer notFound;
+    private List<Long> notFoundIds; // capped, see notFoundIdsTruncated
+    private Boolean notFoundIdsTruncated;
+    private Integer chunks;
+    private Long durationMs;
+
+    // Only filled when the caller asks for it
+    private List<ProductDTO> products;
+}
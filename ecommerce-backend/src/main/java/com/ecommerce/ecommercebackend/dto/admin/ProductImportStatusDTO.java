@@ -0,0 +1,45 @@
+package com.ecommerce.ecommercebackend.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class ProductImportStatusDTO {
+    private String id;
+    private String fileName;
+    private String format;
+    private String state;           // QUEUED, RUNNING, COMPLETED, FAILED
+    private String message;
+
+    // Progress
+    private Long totalBytes;
+    private Long bytesRead;
+    private Integer percentComplete;
+    private Long rowsRead;
+
+    // Outcome so far
+    private Long inserted;
+    private Long updated;
+    private Long unchanged;
+    private Long failed;
+
+    private String startedAt;
+    private String finishedAt;
+    private Long durationMs;
+
+    // First rows that failed; errorsTruncated is set once the cap is reached
+    private List<RowError> errors;
+    private Boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Long line;
+        private String sku;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.ecommercebackend.dto.admin;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class RealtimeSalesDTO {
+    private WindowDTO last5Minutes;
+    private WindowDTO lastHour;
+    private WindowDTO last24Hours;
+
+    // Counters are per instance and start empty at boot
+    private String trackingSince;
+    private String generatedAt;
+
+    @Data
+    public static class WindowDTO {
+        private Long orders;
+        private BigDecimal revenue;
+        private Long cancelledOrders;
+        private BigDecimal cancelledRevenue;
+        private BigDecimal netRevenue;
+    }
+}
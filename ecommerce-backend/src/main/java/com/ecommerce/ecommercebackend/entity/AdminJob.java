@@ -0,0 +1,116 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A long-running admin bulk operation. The selected ids and parameters are stored with the job and
+ * processed in chunks; processed_items is the resume point, so a job interrupted by a restart picks
+ * up at the first unprocessed chunk. The instance working on a job holds it through a lease that it
+ * renews every chunk; other instances only take the job over once the lease has run out.
+ */
+@Entity
+@Table(name = "admin_jobs", indexes = {
+        @Index(name = "idx_admin_jobs_status", columnList = "status"),
+        @Index(name = "idx_admin_jobs_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"targetIds", "parameters"})
+public class AdminJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status = JobStatus.QUEUED;
+
+    // JSON array of the ids to process, in processing order
+    @Column(name = "target_ids", nullable = false, columnDefinition = "LONGTEXT")
+    private String targetIds;
+
+    // JSON object with the operation's parameters
+    @Column(columnDefinition = "TEXT")
+    private String parameters;
+
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems = 0;
+
+    @Column(name = "processed_items", nullable = false)
+    private Integer processedItems = 0;
+
+    @Column(name = "succeeded_items", nullable = false)
+    private Integer succeededItems = 0;
+
+    @Column(name = "failed_items", nullable = false)
+    private Integer failedItems = 0;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested = false;
+
+    // Instance currently working on the job
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+
+    public enum JobType {
+        PRODUCT_BULK_DELETE,
+        PRODUCT_BULK_UPDATE,
+        ORDER_BULK_STATUS
+    }
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
@@ -15,7 +15,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "cart")
+@Table(name = "cart", indexes = {
+        // Keyset cursor for the abandoned-cart sweeper
+        @Index(name = "idx_cart_updated_at_id", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
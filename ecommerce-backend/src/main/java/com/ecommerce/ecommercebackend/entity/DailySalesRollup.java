@@ -0,0 +1,43 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders aggregated per creation day and current status. Maintained incrementally by
+ * SalesRollupService whenever an order is created or changes status.
+ */
+@Entity
+@Table(name = "daily_sales_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_sales_rollup_date_status",
+                columnNames = {"sales_date", "status"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Order.OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "items_sold", nullable = false)
+    private Long itemsSold = 0L;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.ecommercebackend.entity;
 
+import com.ecommerce.ecommercebackend.exception.InvalidOrderTransitionException;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -12,11 +13,19 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Covers the grouped status/revenue aggregate used by the admin dashboard
+        @Index(name = "idx_orders_status_total", columnList = "status, total_amount")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -131,7 +140,45 @@ public class Order {
         DELIVERED,
         CANCELLED,
         REFUNDED,
-        ON_HOLD
+        ON_HOLD;
+
+        // The order lifecycle: which statuses each status may move to. Every status needs an entry.
+        private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+        static {
+            allow(PENDING, CONFIRMED, PROCESSING, ON_HOLD, CANCELLED);
+            allow(CONFIRMED, PROCESSING, SHIPPED, ON_HOLD, CANCELLED);
+            allow(PROCESSING, CONFIRMED, SHIPPED, ON_HOLD, CANCELLED);
+            allow(ON_HOLD, PENDING, CONFIRMED, PROCESSING, CANCELLED);
+            allow(SHIPPED, DELIVERED);
+            allow(DELIVERED, REFUNDED);
+            allow(CANCELLED, REFUNDED);
+            allow(REFUNDED);
+
+            for (OrderStatus status : values()) {
+                if (!TRANSITIONS.containsKey(status)) {
+                    throw new IllegalStateException("No transitions defined for order status " + status);
+                }
+            }
+        }
+
+        public boolean canTransitionTo(OrderStatus target) {
+            return TRANSITIONS.get(this).contains(target);
+        }
+
+        public Set<OrderStatus> allowedTransitions() {
+            return Collections.unmodifiableSet(TRANSITIONS.get(this));
+        }
+
+        // Customers may only cancel before shipping and while the order is not on hold; admins can
+        // still cancel ON_HOLD orders through the transition table
+        public boolean isCancellableByCustomer() {
+            return (this == PENDING || this == CONFIRMED || this == PROCESSING) && canTransitionTo(CANCELLED);
+        }
+
+        private static void allow(OrderStatus from, OrderStatus... to) {
+            TRANSITIONS.put(from, to.length == 0 ? EnumSet.noneOf(OrderStatus.class) : EnumSet.copyOf(Arrays.asList(to)));
+        }
     }
 
     public enum PaymentMethod {
@@ -192,9 +239,62 @@ public class Order {
     }
 
     public boolean canBeCancelled() {
-        return this.status == OrderStatus.PENDING ||
-                this.status == OrderStatus.CONFIRMED ||
-                this.status == OrderStatus.PROCESSING;
+        return this.status != null && this.status.isCancellableByCustomer();
+    }
+
+    /**
+     * Why the order may not move to the status, or null if it may. Staying in the current
+     * status is always allowed.
+     */
+    public String transitionRejectionReason(OrderStatus to) {
+        if (this.status == to) {
+            return null;
+        }
+        if (to == null || this.status == null || !this.status.canTransitionTo(to)) {
+            return "cannot move from " + this.status + " to " + to;
+        }
+        if (to == OrderStatus.REFUNDED && this.paymentStatus != PaymentStatus.PAID
+                && this.paymentStatus != PaymentStatus.PARTIALLY_REFUNDED) {
+            return "order has no captured payment to refund (payment status " + this.paymentStatus + ")";
+        }
+        return null;
+    }
+
+    /**
+     * Validates and applies a status transition in memory, including the field updates that come
+     * with entering the new status. Returns the previous status; a no-op when it does not change.
+     */
+    public OrderStatus transitionTo(OrderStatus to) {
+        OrderStatus from = this.status;
+        String reason = transitionRejectionReason(to);
+        if (reason != null) {
+            throw new InvalidOrderTransitionException("Order " + this.orderNumber + ": " + reason);
+        }
+        if (from == to) {
+            return from;
+        }
+        this.status = to;
+        switch (to) {
+            case SHIPPED -> {
+                if (this.shippedAt == null) {
+                    this.shippedAt = LocalDateTime.now();
+                }
+            }
+            case DELIVERED -> {
+                if (this.deliveredAt == null) {
+                    this.deliveredAt = LocalDateTime.now();
+                }
+            }
+            case CANCELLED -> {
+                if (this.cancelledAt == null) {
+                    this.cancelledAt = LocalDateTime.now();
+                }
+            }
+            case REFUNDED -> this.paymentStatus = PaymentStatus.REFUNDED;
+            default -> {
+            }
+        }
+        return from;
     }
 
     public void markAsShipped(String trackingNumber, String shippingMethod) {
@@ -211,8 +311,7 @@ public class Order {
 
     public void cancelOrder() {
         if (canBeCancelled()) {
-            this.status = OrderStatus.CANCELLED;
-            this.cancelledAt = LocalDateTime.now();
+            transitionTo(OrderStatus.CANCELLED);
             this.paymentStatus = PaymentStatus.REFUNDED;
         }
     }
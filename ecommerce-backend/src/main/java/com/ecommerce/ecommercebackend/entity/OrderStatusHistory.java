@@ -0,0 +1,49 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only log of order status transitions, one row per change. Rows are written with JDBC
+ * batch inserts by OrderStatusHistoryRecorder and never updated.
+ */
+@Entity
+@Table(name = "order_status_history", indexes = {
+        @Index(name = "idx_order_status_history_order", columnList = "order_id, created_at"),
+        @Index(name = "idx_order_status_history_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // Null for the row written when the order is placed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private Order.OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 50)
+    private Order.OrderStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    // User who made the change; null for system changes
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
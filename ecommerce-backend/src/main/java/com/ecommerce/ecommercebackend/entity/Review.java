@@ -12,7 +12,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_product_helpful", columnList = "product_id, helpful_votes, id"),
+        @Index(name = "idx_reviews_product_rating", columnList = "product_id, rating, id"),
+        @Index(name = "idx_reviews_product_created", columnList = "product_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,10 +54,12 @@ public class Review {
     @Column(name = "is_approved")
     private Boolean isApproved = true; // For admin moderation
 
-    @Column(name = "helpful_votes")
+    // Vote counters are only ever changed by ReviewRepository.adjustVoteCounts and the repair job,
+    // never by saving the entity, so a concurrent vote cannot be overwritten with a stale value
+    @Column(name = "helpful_votes", updatable = false)
     private Integer helpfulVotes = 0;
 
-    @Column(name = "unhelpful_votes")
+    @Column(name = "unhelpful_votes", updatable = false)
     private Integer unhelpfulVotes = 0;
 
     @Column(name = "reported_count")
@@ -0,0 +1,37 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // JWT ID (jti claim) of the revoked token
+    @Column(nullable = false, unique = true, length = 36)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Same as the token's own expiry - the row can be pruned after this
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -14,7 +14,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_phone", columnList = "phone")
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 @EqualsAndHashCode(exclude = {"cart", "orders", "reviews"})
@@ -91,6 +93,10 @@ public class User {
     @Column(name = "password_reset_expiry")
     private LocalDateTime passwordResetExpiry;
 
+    // Bumped to invalidate previously issued tokens (deactivation, role change)
+    @Column(name = "token_version", columnDefinition = "INT DEFAULT 0")
+    private Integer tokenVersion = 0;
+
     // User preferences
     @Column(name = "preferred_language", columnDefinition = "VARCHAR(10) DEFAULT 'en'")
     private String preferredLanguage = "en";
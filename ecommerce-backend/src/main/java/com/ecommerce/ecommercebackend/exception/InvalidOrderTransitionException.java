@@ -0,0 +1,7 @@
+package com.ecommerce.ecommercebackend.exception;
+
+public class InvalidOrderTransitionException extends RuntimeException {
+    public InvalidOrderTransitionException(String message) {
+        super(message);
+    }
+}
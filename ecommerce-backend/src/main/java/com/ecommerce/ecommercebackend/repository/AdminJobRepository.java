@@ -0,0 +1,70 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.AdminJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AdminJobRepository extends JpaRepository<AdminJob, Long> {
+
+    Page<AdminJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    Page<AdminJob> findByStatusOrderByCreatedAtDesc(AdminJob.JobStatus status, Pageable pageable);
+
+    // Unfinished jobs that no instance holds a live lease on, oldest first
+    @Query("SELECT j FROM AdminJob j WHERE j.status IN :statuses " +
+            "AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now) ORDER BY j.id ASC")
+    List<AdminJob> findUnleased(@Param("statuses") Collection<AdminJob.JobStatus> statuses,
+                                @Param("now") LocalDateTime now);
+
+    // Takes the job unless another instance holds an unexpired lease; 0 when someone else has it
+    @Modifying
+    @Query("UPDATE AdminJob j SET j.lockedBy = :owner, j.leaseExpiresAt = :leaseUntil, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status IN ('QUEUED', 'RUNNING') " +
+            "AND (j.lockedBy IS NULL OR j.lockedBy = :owner OR j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)")
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    // Extends the lease while the owner still holds it; 0 once another instance has taken over
+    @Modifying
+    @Query("UPDATE AdminJob j SET j.leaseExpiresAt = :leaseUntil, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.lockedBy = :owner")
+    int renewLease(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil,
+                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT j.cancelRequested FROM AdminJob j WHERE j.id = :id")
+    Boolean isCancelRequested(@Param("id") Long id);
+
+    // Committed together with the chunk it describes, so the counters never run ahead of the data
+    @Modifying
+    @Query("UPDATE AdminJob j SET j.processedItems = j.processedItems + :processed, " +
+            "j.succeededItems = j.succeededItems + :succeeded, j.failedItems = j.failedItems + :failed, " +
+            "j.updatedAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") Long id,
+                       @Param("processed") int processed,
+                       @Param("succeeded") int succeeded,
+                       @Param("failed") int failed,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AdminJob j SET j.cancelRequested = true, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status IN ('QUEUED', 'RUNNING')")
+    int requestCancel(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM AdminJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
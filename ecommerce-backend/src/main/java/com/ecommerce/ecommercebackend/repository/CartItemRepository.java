@@ -2,9 +2,11 @@ package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +23,10 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findAllByCartIdWithProduct(@Param("cartId") Long cartId);
 
     void deleteByCartId(Long cartId);
-}
\ No newline at end of file
+
+    // Delete items of carts that are still idle at delete time (used by the abandoned-cart sweeper)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN " +
+            "(SELECT c.id FROM Cart c WHERE c.id IN :cartIds AND c.updatedAt < :cutoff)")
+    int deleteItemsOfIdleCarts(@Param("cartIds") List<Long> cartIds, @Param("cutoff") LocalDateTime cutoff);
+}
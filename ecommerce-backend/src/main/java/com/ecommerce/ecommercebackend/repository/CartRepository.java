@@ -1,10 +1,15 @@
 package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.Cart;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +22,25 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.cartItems ci LEFT JOIN FETCH ci.product WHERE c.id = :id")
     Optional<Cart> findByIdWithItems(@Param("id") Long id);
-}
\ No newline at end of file
+
+    // ============= ABANDONED CART SWEEPER =============
+
+    // Keyset page of idle, non-empty carts ordered by (updatedAt, id) - returns [id, updatedAt]
+    @Query("SELECT c.id, c.updatedAt FROM Cart c " +
+            "WHERE c.updatedAt < :cutoff AND c.totalItems > 0 AND " +
+            "(c.updatedAt > :lastUpdatedAt OR (c.updatedAt = :lastUpdatedAt AND c.id > :lastId)) " +
+            "ORDER BY c.updatedAt, c.id")
+    List<Object[]> findIdleCartsAfter(
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("lastUpdatedAt") LocalDateTime lastUpdatedAt,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+
+    // Reset totals of swept carts (re-checks idleness so a cart touched meanwhile is left alone)
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalItems = 0, c.totalAmount = :zero " +
+            "WHERE c.id IN :cartIds AND c.updatedAt < :cutoff")
+    int resetIdleCartTotals(@Param("cartIds") List<Long> cartIds,
+                            @Param("cutoff") LocalDateTime cutoff,
+                            @Param("zero") BigDecimal zero);
+}
@@ -23,4 +23,8 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     @Query("SELECT c FROM Category c WHERE c.isActive = true AND c.parent.id = :parentId ORDER BY c.displayOrder")
     List<Category> findActiveSubCategories(@Param("parentId") Long parentId);
+
+    // Lookup table for imports - returns [id, slug, name]
+    @Query("SELECT c.id, c.slug, c.name FROM Category c")
+    List<Object[]> findSlugIndex();
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.DailySalesRollup;
+import com.ecommerce.ecommercebackend.entity.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    // ============= INCREMENTAL MAINTENANCE =============
+
+    // Add (or subtract, with negative values) to one (date, status) bucket, creating it if missing
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, status, order_count, revenue, items_sold) " +
+            "VALUES (:salesDate, :status, :orderCount, :revenue, :itemsSold) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), " +
+            "revenue = revenue + VALUES(revenue), " +
+            "items_sold = items_sold + VALUES(items_sold)",
+            nativeQuery = true)
+    int applyDelta(@Param("salesDate") LocalDate salesDate,
+                   @Param("status") String status,
+                   @Param("orderCount") long orderCount,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("itemsSold") long itemsSold);
+
+    // ============= BACKFILL =============
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_sales_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, status, order_count, revenue, items_sold) " +
+            "SELECT DATE(o.created_at), o.status, COUNT(*), COALESCE(SUM(o.total_amount), 0), COALESCE(SUM(i.qty), 0) " +
+            "FROM orders o " +
+            "LEFT JOIN (SELECT order_id, SUM(quantity) AS qty FROM order_items GROUP BY order_id) i " +
+            "ON i.order_id = o.id " +
+            "WHERE o.created_at IS NOT NULL " +
+            "GROUP BY DATE(o.created_at), o.status",
+            nativeQuery = true)
+    int rebuildFromOrders();
+
+    // ============= REPORTING =============
+
+    List<DailySalesRollup> findByStatusAndSalesDateBetweenOrderBySalesDate(
+            Order.OrderStatus status, LocalDate start, LocalDate end);
+
+    // One row per day across all statuses - returns [salesDate, orderCount, revenue, itemsSold]
+    @Query("SELECT r.salesDate, SUM(r.orderCount), SUM(r.revenue), SUM(r.itemsSold) " +
+            "FROM DailySalesRollup r WHERE r.salesDate BETWEEN :start AND :end " +
+            "GROUP BY r.salesDate ORDER BY r.salesDate")
+    List<Object[]> sumByDate(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -18,4 +18,9 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderIdWithProduct(@Param("orderId") Long orderId);
 
     List<OrderItem> findByOrderIdIn(List<Long> orderIds);
+
+    // Units per order - returns [orderId, sum(quantity)]
+    @Query("SELECT oi.order.id, COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi " +
+            "WHERE oi.order.id IN :orderIds GROUP BY oi.order.id")
+    List<Object[]> sumQuantityByOrderIds(@Param("orderIds") List<Long> orderIds);
 }
\ No newline at end of file
@@ -1,16 +1,21 @@
 package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -34,6 +39,26 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     boolean existsByOrderNumber(String orderNumber);
 
+    // ============= EXPORT CURSORS =============
+    // Forward-only export cursor, see ProductRepository.streamAllForExport - returns
+    // [id, orderNumber, userId, customerEmail, status, paymentStatus, paymentMethod,
+    //  subtotal, taxAmount, shippingAmount, discountAmount, totalAmount, createdAt]
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.id, o.orderNumber, u.id, u.email, o.status, o.paymentStatus, o.paymentMethod, " +
+            "o.subtotal, o.taxAmount, o.shippingAmount, o.discountAmount, o.totalAmount, o.createdAt " +
+            "FROM Order o JOIN o.user u WHERE " +
+            "(:status IS NULL OR o.status = :status) AND " +
+            "(:start IS NULL OR o.createdAt >= :start) AND " +
+            "(:end IS NULL OR o.createdAt <= :end) " +
+            "ORDER BY o.id")
+    Stream<Object[]> streamForExport(
+            @Param("status") Order.OrderStatus status,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
     // ============= ADMIN DASHBOARD QUERIES =============
 
     // Find orders by status (ADD THIS METHOD)
@@ -72,6 +97,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("search") String search,
             Pageable pageable);
 
+    // Page of orders resolved by the admin search index, customer loaded with it
+    @Query("SELECT o FROM Order o JOIN FETCH o.user WHERE o.id IN :ids")
+    List<Order> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
     // Get revenue stats
     @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.status = 'DELIVERED'")
     Double getTotalRevenue();
@@ -95,6 +124,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
     List<Object[]> countByStatus();
 
+    // Count and revenue per status in one pass - returns [status, count, sum(totalAmount)]
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0) FROM Order o GROUP BY o.status")
+    List<Object[]> getStatusSummary();
+
     // Get popular products (most ordered)
     @Query("SELECT oi.product.id, oi.product.name, oi.product.imageUrl, SUM(oi.quantity) as totalSold, SUM(oi.subtotal) as revenue " +
             "FROM OrderItem oi GROUP BY oi.product.id, oi.product.name, oi.product.imageUrl " +
@@ -104,4 +137,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     default List<Object[]> findTop10PopularProducts() {
         return findPopularProducts(Pageable.ofSize(10));
     }
+
+    // Same as findPopularProducts but ignoring cancelled orders (used to reconcile the in-memory leaderboard)
+    @Query("SELECT oi.product.id, oi.product.name, oi.product.imageUrl, SUM(oi.quantity) as totalSold, SUM(oi.subtotal) as revenue " +
+            "FROM OrderItem oi WHERE oi.order.status <> :excluded " +
+            "GROUP BY oi.product.id, oi.product.name, oi.product.imageUrl " +
+            "ORDER BY totalSold DESC")
+    List<Object[]> findPopularProductsExcluding(@Param("excluded") Order.OrderStatus excluded, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    List<OrderStatusHistory> findByOrderIdOrderByCreatedAtAscIdAsc(Long orderId);
+
+    // Time spent in each status by orders that entered it in the range and have since moved on -
+    // returns [status, transitions, avgSeconds, minSeconds, maxSeconds]
+    @Query(value = "SELECT h.status, COUNT(*), AVG(TIMESTAMPDIFF(SECOND, h.created_at, h.left_at)), " +
+            "MIN(TIMESTAMPDIFF(SECOND, h.created_at, h.left_at)), MAX(TIMESTAMPDIFF(SECOND, h.created_at, h.left_at)) " +
+            "FROM (SELECT status, created_at, " +
+            "LEAD(created_at) OVER (PARTITION BY order_id ORDER BY created_at, id) AS left_at " +
+            "FROM order_status_history WHERE created_at >= :start) h " +
+            "WHERE h.left_at IS NOT NULL AND h.created_at < :end " +
+            "GROUP BY h.status", nativeQuery = true)
+    List<Object[]> getTimeInStatus(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
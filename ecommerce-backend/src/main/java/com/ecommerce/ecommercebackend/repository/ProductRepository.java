@@ -1,16 +1,21 @@
 package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -129,9 +134,55 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT SUM(p.price * p.stockQuantity) FROM Product p")
     BigDecimal getTotalInventoryValue();
 
+    // Whole-catalog inventory figures in one pass - returns a single row
+    // [totalProducts, activeProducts, outOfStock, lowStock, totalUnits, totalStockValue]
+    @Query("SELECT COUNT(p), " +
+            "COALESCE(SUM(CASE WHEN p.isActive = true THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN p.stockQuantity IS NULL OR p.stockQuantity <= 0 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN p.stockQuantity > 0 AND p.stockQuantity <= :lowStockThreshold THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(p.stockQuantity), 0), " +
+            "COALESCE(SUM(p.price * p.stockQuantity), 0) " +
+            "FROM Product p")
+    List<Object[]> getInventorySummary(@Param("lowStockThreshold") int lowStockThreshold);
+
+    // Same figures per category, largest first - returns
+    // [categoryId, categoryName, products, outOfStock, lowStock, totalUnits, totalStockValue]
+    @Query("SELECT c.id, c.name, COUNT(p), " +
+            "COALESCE(SUM(CASE WHEN p.stockQuantity IS NULL OR p.stockQuantity <= 0 THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN p.stockQuantity > 0 AND p.stockQuantity <= :lowStockThreshold THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(p.stockQuantity), 0), " +
+            "COALESCE(SUM(p.price * p.stockQuantity), 0) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "GROUP BY c.id, c.name ORDER BY COUNT(p) DESC")
+    List<Object[]> getInventoryByCategory(@Param("lowStockThreshold") int lowStockThreshold);
+
     // Find products by IDs (for bulk operations)
     List<Product> findByIdIn(List<Long> ids);
 
+    // ============= EXPORT CURSORS =============
+    // Forward-only, streamed row by row (MySQL needs fetch size Integer.MIN_VALUE for that); callers must
+    // consume them inside a transaction and close the stream - returns
+    // [id, sku, name, category, price, discountPrice, stockQuantity, isActive, createdAt, updatedAt]
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id, p.sku, p.name, c.name, p.price, p.discountPrice, p.stockQuantity, p.isActive, " +
+            "p.createdAt, p.updatedAt FROM Product p LEFT JOIN p.category c ORDER BY p.id")
+    Stream<Object[]> streamAllForExport();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id, p.sku, p.name, c.name, p.price, p.discountPrice, p.stockQuantity, p.isActive, " +
+            "p.createdAt, p.updatedAt FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids ORDER BY p.id")
+    Stream<Object[]> streamForExportByIds(@Param("ids") Collection<Long> ids);
+
+    // Current stock for a batch of products - returns [id, stockQuantity]
+    @Query("SELECT p.id, p.stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockByIds(@Param("ids") Collection<Long> ids);
+
     // Find products with discounts
     Page<Product> findByDiscountPriceIsNotNull(Pageable pageable);
 
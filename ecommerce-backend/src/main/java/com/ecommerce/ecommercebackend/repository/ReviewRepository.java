@@ -1,11 +1,14 @@
 package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,4 +40,81 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // Sort by date (oldest first)
     List<Review> findByProductIdOrderByCreatedAtAsc(Long productId);
+
+    // ============= KEYSET PAGES =============
+    // Each sort continues after the (sort key, id) of the last review on the previous page and is one
+    // range scan on its (product_id, sort key, id) index. The leading "<=" / ">=" bounds the scan; the
+    // OR breaks ties on id. Author and product are fetched in the same query. verifiedOnly / withImages
+    // narrow the page to verified purchases / reviews with photos; rows failing them are skipped
+    // during the same scan.
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.product WHERE r.product.id = :productId " +
+            "AND r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id) " +
+            "AND (:verifiedOnly = false OR r.isVerifiedPurchase = true) AND (:withImages = false OR r.images IS NOT EMPTY) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestAfter(@Param("productId") Long productId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 @Param("verifiedOnly") boolean verifiedOnly,
+                                 @Param("withImages") boolean withImages,
+                                 Pageable pageable);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.product WHERE r.product.id = :productId " +
+            "AND r.createdAt >= :createdAt AND (r.createdAt > :createdAt OR r.id > :id) " +
+            "AND (:verifiedOnly = false OR r.isVerifiedPurchase = true) AND (:withImages = false OR r.images IS NOT EMPTY) " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    List<Review> findOldestAfter(@Param("productId") Long productId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 @Param("verifiedOnly") boolean verifiedOnly,
+                                 @Param("withImages") boolean withImages,
+                                 Pageable pageable);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.product WHERE r.product.id = :productId " +
+            "AND r.helpfulVotes <= :helpfulVotes AND (r.helpfulVotes < :helpfulVotes OR r.id < :id) " +
+            "AND (:verifiedOnly = false OR r.isVerifiedPurchase = true) AND (:withImages = false OR r.images IS NOT EMPTY) " +
+            "ORDER BY r.helpfulVotes DESC, r.id DESC")
+    List<Review> findMostHelpfulAfter(@Param("productId") Long productId,
+                                      @Param("helpfulVotes") Integer helpfulVotes,
+                                      @Param("id") Long id,
+                                      @Param("verifiedOnly") boolean verifiedOnly,
+                                      @Param("withImages") boolean withImages,
+                                      Pageable pageable);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.product WHERE r.product.id = :productId " +
+            "AND r.rating <= :rating AND (r.rating < :rating OR r.id < :id) " +
+            "AND (:verifiedOnly = false OR r.isVerifiedPurchase = true) AND (:withImages = false OR r.images IS NOT EMPTY) " +
+            "ORDER BY r.rating DESC, r.id DESC")
+    List<Review> findHighestRatedAfter(@Param("productId") Long productId,
+                                       @Param("rating") Integer rating,
+                                       @Param("id") Long id,
+                                       @Param("verifiedOnly") boolean verifiedOnly,
+                                       @Param("withImages") boolean withImages,
+                                       Pageable pageable);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.product WHERE r.product.id = :productId " +
+            "AND r.rating >= :rating AND (r.rating > :rating OR r.id > :id) " +
+            "AND (:verifiedOnly = false OR r.isVerifiedPurchase = true) AND (:withImages = false OR r.images IS NOT EMPTY) " +
+            "ORDER BY r.rating ASC, r.id ASC")
+    List<Review> findLowestRatedAfter(@Param("productId") Long productId,
+                                      @Param("rating") Integer rating,
+                                      @Param("id") Long id,
+                                      @Param("verifiedOnly") boolean verifiedOnly,
+                                      @Param("withImages") boolean withImages,
+                                      Pageable pageable);
+
+    // Atomic counter change for one vote, applied in the voting transaction. Clears the persistence
+    // context, so reload the review afterwards to see the new counts
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE reviews SET helpful_votes = COALESCE(helpful_votes, 0) + :helpfulDelta, " +
+            "unhelpful_votes = COALESCE(unhelpful_votes, 0) + :unhelpfulDelta WHERE id = :reviewId",
+            nativeQuery = true)
+    int adjustVoteCounts(@Param("reviewId") Long reviewId,
+                         @Param("helpfulDelta") int helpfulDelta,
+                         @Param("unhelpfulDelta") int unhelpfulDelta);
+
+    // A user's reviews with author and product loaded in the same query, newest first
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.product WHERE r.user.id = :userId " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findAllWithDetailsByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
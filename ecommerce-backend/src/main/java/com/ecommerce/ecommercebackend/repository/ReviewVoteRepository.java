@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,6 +24,10 @@ public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
     @Query("SELECT COUNT(v) FROM ReviewVote v WHERE v.review.id = :reviewId AND v.voteType = 'UNHELPFUL'")
     Long countUnhelpfulVotes(@Param("reviewId") Long reviewId);
 
+    // One user's votes among a page of reviews - returns [reviewId, voteType]
+    @Query("SELECT v.review.id, v.voteType FROM ReviewVote v WHERE v.user.id = :userId AND v.review.id IN :reviewIds")
+    List<Object[]> findUserVotes(@Param("userId") Long userId, @Param("reviewIds") Collection<Long> reviewIds);
+
     // Check if user has voted on a review
     boolean existsByUserIdAndReviewId(Long userId, Long reviewId);
 
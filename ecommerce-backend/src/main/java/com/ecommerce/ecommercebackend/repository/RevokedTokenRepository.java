@@ -0,0 +1,30 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByJti(String jti);
+
+    // Still-valid revocations, optionally only those recorded after a point in time - returns [jti, expiresAt]
+    @Query("SELECT r.jti, r.expiresAt FROM RevokedToken r " +
+            "WHERE r.expiresAt > :now AND r.revokedAt >= :since")
+    List<Object[]> findActiveRevokedSince(
+            @Param("now") LocalDateTime now,
+            @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
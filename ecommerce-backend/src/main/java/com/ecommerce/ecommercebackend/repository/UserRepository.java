@@ -1,16 +1,20 @@
 package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -26,12 +30,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByPhone(String phone);
 
+    // Users whose tokens have been invalidated at least once - returns [id, tokenVersion]
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findBumpedTokenVersions();
+
     // ============= ADMIN DASHBOARD QUERIES =============
 
     // Count users by role
     long countByRole(User.Role role);
 
-    // Get users with filters for admin panel
+    // Get users with filters for admin panel; searches normally go through UserSearchIndex, this
+    // LIKE scan only serves them while the index is loading
     @Query("SELECT u FROM User u WHERE " +
             "(:role IS NULL OR u.role = :role) AND " +
             "(:search IS NULL OR " +
@@ -44,6 +53,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
             @Param("search") String search,
             Pageable pageable);
 
+    // Keyset page for admin panel, newest first; the caller asks for one extra row to learn whether
+    // another page follows. Search as in findUsersWithFilters
+    @Query("SELECT u FROM User u WHERE " +
+            "(:role IS NULL OR u.role = :role) AND " +
+            "(:afterId IS NULL OR u.id < :afterId) AND " +
+            "(:search IS NULL OR " +
+            "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(u.phone) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+            "ORDER BY u.id DESC")
+    List<User> findUsersAfter(
+            @Param("role") User.Role role,
+            @Param("afterId") Long afterId,
+            @Param("search") String search,
+            Pageable pageable);
+
     // Get recent users
     @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
     List<User> findTop10ByOrderByCreatedAtDesc(Pageable pageable);
@@ -64,6 +90,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
     List<Object[]> countByRole();
 
+    // Every admin user counter in one pass - returns
+    // [total, customers, admins, moderators, sellers, active, inactive, verified, unverified]
+    @Query("SELECT COUNT(u), " +
+            "COALESCE(SUM(CASE WHEN u.role = 'CUSTOMER' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.role = 'ADMIN' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.role = 'MODERATOR' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.role = 'SELLER' THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.isActive = true THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.isActive = false THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.isEmailVerified = true THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN u.isEmailVerified = false THEN 1 ELSE 0 END), 0) " +
+            "FROM User u")
+    List<Object[]> getUserStatsSummary();
+
     // Get active vs inactive users
     long countByIsActiveTrue();
     long countByIsActiveFalse();
@@ -72,7 +112,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByIsEmailVerifiedTrue();
     long countByIsEmailVerifiedFalse();
 
-    // Search users by name or email (for admin)
+    // Search users by name or email (for admin), fallback while UserSearchIndex is loading
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -90,6 +130,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
         return findTopCustomers(Pageable.ofSize(10));
     }
 
+    // Forward-only export cursor, see ProductRepository.streamAllForExport - returns
+    // [id, email, firstName, lastName, phone, role, isActive, isEmailVerified, createdAt, lastLogin]
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.email, u.firstName, u.lastName, u.phone, u.role, u.isActive, u.isEmailVerified, " +
+            "u.createdAt, u.lastLogin FROM User u ORDER BY u.id")
+    Stream<Object[]> streamAllForExport();
+
     // Get users who haven't logged in recently (inactive)
     @Query("SELECT u FROM User u WHERE u.lastLogin < :date OR u.lastLogin IS NULL")
     List<User> findInactiveUsers(@Param("date") LocalDateTime date, Pageable pageable);
@@ -0,0 +1,63 @@
+package com.ecommerce.ecommercebackend.security;
+
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of users' token versions, used by the stateless JWT filter to reject tokens
+ * issued before a deactivation or role change. Only users with a non-zero version are held;
+ * everyone else is implicitly at version 0.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountVersionCache {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+        log.info("Loaded token versions for {} users", versions.size());
+    }
+
+    // Picks up changes made by other instances
+    @Scheduled(fixedDelayString = "${app.jwt.version-refresh-ms:60000}",
+            initialDelayString = "${app.jwt.version-refresh-ms:60000}")
+    public void reload() {
+        try {
+            List<Object[]> rows = userRepository.findBumpedTokenVersions();
+            for (Object[] row : rows) {
+                update((Long) row[0], (Integer) row[1]);
+            }
+        } catch (Exception e) {
+            log.error("Failed to reload token versions: {}", e.getMessage());
+        }
+    }
+
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    public void update(Long userId, Integer version) {
+        if (userId == null || version == null) {
+            return;
+        }
+        versions.merge(userId, version, Math::max);
+    }
+}
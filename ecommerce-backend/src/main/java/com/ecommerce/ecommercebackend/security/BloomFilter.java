@@ -0,0 +1,67 @@
+package com.ecommerce.ecommercebackend.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, safe for concurrent adds and lookups.
+ * Uses double hashing (String.hashCode plus an FNV-1a pass over the chars) so
+ * neither add nor mightContain allocates.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(expectedInsertions, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    void add(String value) {
+        int h1 = value.hashCode();
+        int h2 = secondaryHash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long index = bitIndex(h1, h2, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        int h1 = value.hashCode();
+        int h2 = secondaryHash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long index = bitIndex(h1, h2, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(int h1, int h2, int i) {
+        long combined = (h1 & 0xffffffffL) + (long) i * (h2 & 0xffffffffL);
+        return combined % bitCount;
+    }
+
+    private static int secondaryHash(String value) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x01000193;
+        }
+        // Odd so successive probes never collapse onto the same bit
+        return hash | 1;
+    }
+}
@@ -1,7 +1,7 @@
 package com.ecommerce.ecommercebackend.security;
 
 import com.ecommerce.ecommercebackend.entity.User;
-import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,27 +10,66 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
 
-@AllArgsConstructor
+/**
+ * Authenticated principal. Copies the immutable user fields services need at construction time
+ * so they can be read from the security context without touching the database or a detached entity.
+ */
+@Getter
 @Slf4j
 public class CustomUserDetails implements UserDetails {
 
-    private User user;
+    private final Long userId;
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+    private final User.Role role;
+    private final boolean active;
+    private final boolean emailVerified;
+    private final int tokenVersion;
+
+    public CustomUserDetails(User user) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.role = user.getRole();
+        this.active = user.getIsActive() != null && user.getIsActive();
+        this.emailVerified = user.getIsEmailVerified() != null && user.getIsEmailVerified();
+        this.tokenVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    // Built from token claims in stateless mode. Tokens are only issued to active, verified users;
+    // later deactivation is enforced through AccountVersionCache. Names are not in the token, since
+    // renaming does not bump the token version, so they are null here.
+    public CustomUserDetails(Long userId, String email, User.Role role, int tokenVersion) {
+        this.userId = userId;
+        this.email = email;
+        this.password = null;
+        this.firstName = null;
+        this.lastName = null;
+        this.role = role;
+        this.active = true;
+        this.emailVerified = true;
+        this.tokenVersion = tokenVersion;
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
+                new SimpleGrantedAuthority("ROLE_" + role.name())
         );
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -40,9 +79,8 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        boolean isActive = user.getIsActive() != null && user.getIsActive();
-        log.debug("AccountNonLocked check for {}: {}", user.getEmail(), isActive);
-        return isActive;
+        log.debug("AccountNonLocked check for {}: {}", email, active);
+        return active;
     }
 
     @Override
@@ -52,22 +90,13 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        boolean isEnabled = (user.getIsActive() != null && user.getIsActive()) &&
-                (user.getIsEmailVerified() != null && user.getIsEmailVerified());
+        boolean isEnabled = active && emailVerified;
         log.debug("Enabled check for {}: isActive={}, isEmailVerified={}, result={}",
-                user.getEmail(), user.getIsActive(), user.getIsEmailVerified(), isEnabled);
+                email, active, emailVerified, isEnabled);
         return isEnabled;
     }
 
-    public Long getUserId() {
-        return user.getId();
-    }
-
     public String getFullName() {
-        return user.getFirstName() + " " + user.getLastName();
-    }
-
-    public User.Role getRole() {
-        return user.getRole();
+        return firstName + " " + lastName;
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,10 +20,17 @@ import java.io.IOException;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AccountVersionCache accountVersionCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    // When enabled, tokens carrying user claims are trusted without loading the user
+    @Value("${app.jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -43,17 +52,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7); // Remove "Bearer " prefix
 
         try {
-            // Extract user email from JWT token
-            userEmail = jwtService.extractUsername(jwt);
+            // Verify signature and expiry once, then read everything from the verified view
+            VerifiedToken token = jwtService.verify(jwt);
+            userEmail = token.getSubject();
 
             // If user email is extracted and no authentication exists in context
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Load user details from database
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = resolveUserDetails(token, userEmail);
 
-                // Validate token and set authentication in context
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                // Set authentication in context
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -77,4 +86,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
         }
     }
-}
\ No newline at end of file
+
+    private UserDetails resolveUserDetails(VerifiedToken token, String userEmail) {
+        if (tokenRevocationService.isRevoked(token.getJti())) {
+            log.debug("Rejecting revoked token for {}", userEmail);
+            return null;
+        }
+
+        CustomUserDetails principal = stateless ? jwtService.toPrincipal(token) : null;
+
+        if (principal != null) {
+            if (!accountVersionCache.isCurrent(principal.getUserId(), principal.getTokenVersion())) {
+                log.debug("Rejecting token for {} - account version changed", userEmail);
+                return null;
+            }
+            return principal;
+        }
+
+        // Legacy token without user claims (or stateless mode off) - load user details from database
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        return jwtService.isTokenValid(token, userDetails) ? userDetails : null;
+    }
+}
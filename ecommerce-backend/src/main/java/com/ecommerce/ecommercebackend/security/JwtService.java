@@ -1,17 +1,28 @@
 package com.ecommerce.ecommercebackend.security;
 
+import com.ecommerce.ecommercebackend.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 @Service
@@ -26,13 +37,69 @@ public class JwtService {
     @Value("${app.jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    // Max number of recently verified tokens kept in memory (0 disables the cache)
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    // Built once - decoding the secret and building a parser per call is pure overhead
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256(token) -> verified claims, entries dropped once the token expires. Lock-free reads;
+    // when it outgrows verifiedCacheSize one caller trims it (expired entries first)
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean(false);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verifies signature and expiry and returns the parsed claims. A token seen recently is served
+     * from the cache until it expires, so each token is parsed at most once while it stays cached.
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedCacheSize <= 0) {
+            return parse(token);
+        }
+
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(System.currentTimeMillis())) {
+                return cached;
+            }
+            verifiedTokens.remove(key, cached);
+        }
+
+        // Throws for a bad signature or an expired token, same as before
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(key, verified);
+        if (verifiedTokens.size() > verifiedCacheSize) {
+            trim();
+        }
+        return verified;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token).getClaims());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -55,45 +122,90 @@ public class JwtService {
             UserDetails userDetails,
             long expiration
     ) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof CustomUserDetails principal) {
+            claims.put("userId", principal.getUserId());
+            claims.put("role", principal.getRole().name());
+            claims.put("ver", principal.getTokenVersion());
+        }
+
         return Jwts.builder()
-                .claims(extraClaims)
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), io.jsonwebtoken.Jwts.SIG.HS256)
+                .signWith(signingKey, io.jsonwebtoken.Jwts.SIG.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return userDetails.getUsername().equals(token.getSubject())
+                && !token.isExpired(System.currentTimeMillis())
+                && isVersionCurrent(token, userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Tokens issued before the account's version was bumped are no longer accepted
+    private boolean isVersionCurrent(VerifiedToken token, UserDetails userDetails) {
+        if (!(userDetails instanceof CustomUserDetails principal)) {
+            return true;
+        }
+        return token.getVersion() == null || token.getVersion() >= principal.getTokenVersion();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Builds the principal from the token's own claims, or returns null for tokens issued
+     * before user claims were embedded (callers fall back to loading the user).
+     */
+    public CustomUserDetails toPrincipal(VerifiedToken token) {
+        if (token.getUserId() == null || token.getRole() == null || token.getVersion() == null) {
+            return null;
+        }
+        return new CustomUserDetails(
+                token.getUserId(),
+                token.getSubject(),
+                User.Role.valueOf(token.getRole()),
+                token.getVersion()
+        );
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private VerifiedToken parse(String token) {
+        return new VerifiedToken(parser.parseSignedClaims(token).getPayload());
+    }
+
+    // Drops expired tokens, then arbitrary ones, until the cache is back to 90% of its size; callers
+    // that arrive while another thread trims just carry on
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(cached -> cached.isExpired(now));
+            int target = verifiedCacheSize - verifiedCacheSize / 10;
+            Iterator<String> keys = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
 
     public Long getUserIdFromToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("userId", Long.class);
+            return verify(token).getUserId();
         } catch (Exception e) {
             return null;
         }
@@ -101,10 +213,9 @@ public class JwtService {
 
     public String getUserRoleFromToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return claims.get("role", String.class);
+            return verify(token).getRole();
         } catch (Exception e) {
             return null;
         }
     }
-}
\ No newline at end of file
+}
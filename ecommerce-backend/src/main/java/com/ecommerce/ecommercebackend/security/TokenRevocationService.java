@@ -0,0 +1,136 @@
+package com.ecommerce.ecommercebackend.security;
+
+import com.ecommerce.ecommercebackend.entity.RevokedToken;
+import com.ecommerce.ecommercebackend.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token IDs (jti). The table is the source of truth; in memory a Bloom filter answers
+ * "definitely not revoked" for almost every request and the exact map settles the rare positives,
+ * so the per-request check is lock-free and allocation-free.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final int MIN_CAPACITY = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> token expiry (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private int filterCapacity = MIN_CAPACITY;
+    private volatile LocalDateTime lastSyncAt = EPOCH;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        sync();
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    public void revoke(VerifiedToken token) {
+        if (token.getJti() == null) {
+            // Issued before tokens carried an ID - nothing to record
+            return;
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(token.getExpiresAtMillis()), ZoneId.systemDefault());
+        try {
+            if (!revokedTokenRepository.existsByJti(token.getJti())) {
+                revokedTokenRepository.save(new RevokedToken(
+                        null, token.getJti(), token.getUserId(), expiresAt, LocalDateTime.now()));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Token {} already revoked", token.getJti());
+        }
+
+        remember(token.getJti(), token.getExpiresAtMillis());
+        log.info("Revoked token {} for user {}", token.getJti(), token.getUserId());
+    }
+
+    // Pull revocations recorded by other instances
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-ms:30000}",
+            initialDelayString = "${app.jwt.revocation.sync-ms:30000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        // Small overlap so rows committed just before the previous sync are not missed
+        LocalDateTime since = lastSyncAt.equals(EPOCH) ? EPOCH : lastSyncAt.minusSeconds(5);
+        try {
+            List<Object[]> rows = revokedTokenRepository.findActiveRevokedSince(now, since);
+            for (Object[] row : rows) {
+                LocalDateTime expiresAt = (LocalDateTime) row[1];
+                remember((String) row[0], expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            lastSyncAt = now;
+        } catch (Exception e) {
+            log.error("Failed to sync revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    // Expired tokens are rejected by signature validation anyway, so their entries can go
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-ms:600000}",
+            initialDelayString = "${app.jwt.revocation.prune-ms:600000}")
+    public void prune() {
+        long nowMillis = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.entrySet().removeIf(entry -> entry.getValue() <= nowMillis);
+        rebuildFilter();
+
+        try {
+            int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+            log.debug("Pruned {} revoked tokens in memory, {} rows", before - revoked.size(), deleted);
+        } catch (Exception e) {
+            log.error("Failed to prune revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Writers are serialized with rebuilds so no jti can slip between the old and new filter
+    private synchronized void remember(String jti, long expiresAtMillis) {
+        revoked.put(jti, expiresAtMillis);
+        filter.add(jti);
+        if (revoked.size() > filterCapacity) {
+            rebuildFilter();
+        }
+    }
+
+    // Resize so the false-positive rate stays bounded as the set grows or shrinks
+    private synchronized void rebuildFilter() {
+        int capacity = Math.max(MIN_CAPACITY, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filterCapacity = capacity;
+        filter = rebuilt;
+    }
+}
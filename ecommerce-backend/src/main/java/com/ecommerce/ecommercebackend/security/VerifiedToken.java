@@ -0,0 +1,34 @@
+package com.ecommerce.ecommercebackend.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been checked.
+ * The commonly used claims are read once at construction so callers never touch the JSON payload again.
+ */
+@Getter
+public final class VerifiedToken {
+
+    private final Claims claims;
+    private final String jti;
+    private final String subject;
+    private final Long userId;
+    private final String role;
+    private final Integer version;
+    private final long expiresAtMillis;
+
+    VerifiedToken(Claims claims) {
+        this.claims = claims;
+        this.jti = claims.getId();
+        this.subject = claims.getSubject();
+        this.userId = claims.get("userId", Long.class);
+        this.role = claims.get("role", String.class);
+        this.version = claims.get("ver", Integer.class);
+        this.expiresAtMillis = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import com.ecommerce.ecommercebackend.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically empties carts that have been idle for longer than {@code app.cart.sweeper.idle-days}.
+ * Carts are walked with a keyset cursor on (updatedAt, id) in bounded chunks, each chunk in its own
+ * short transaction, and the sweeper sleeps between chunks to stay under a rows-per-second budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AbandonedCartSweeper {
+
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.cart.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cart.sweeper.idle-days:30}")
+    private int idleDays;
+
+    @Value("${app.cart.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cart.sweeper.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Metrics
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalCartsSwept = new AtomicLong();
+    private final AtomicLong totalItemsDeleted = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunDurationMs;
+    private volatile long lastRunCartsSwept;
+    private volatile long lastRunItemsDeleted;
+
+    @Scheduled(cron = "${app.cart.sweeper.cron:0 30 3 * * *}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            log.debug("Abandoned cart sweeper is disabled");
+            return;
+        }
+        sweep();
+    }
+
+    public Map<String, Object> sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Abandoned cart sweep already in progress, skipping");
+            return getStats();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long cartsSwept = 0;
+        long itemsDeleted = 0;
+
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(idleDays);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+            LocalDateTime lastUpdatedAt = CURSOR_START;
+            Long lastId = 0L;
+
+            log.info("Starting abandoned cart sweep - cutoff: {}, batchSize: {}", cutoff, batchSize);
+
+            while (true) {
+                long chunkStartedAt = System.currentTimeMillis();
+
+                List<Object[]> chunk = cartRepository.findIdleCartsAfter(
+                        cutoff, lastUpdatedAt, lastId, PageRequest.of(0, batchSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<Long> cartIds = new ArrayList<>(chunk.size());
+                for (Object[] row : chunk) {
+                    cartIds.add((Long) row[0]);
+                }
+                Object[] last = chunk.get(chunk.size() - 1);
+                lastId = (Long) last[0];
+                lastUpdatedAt = (LocalDateTime) last[1];
+
+                Integer deleted = transactionTemplate.execute(status -> {
+                    int count = cartItemRepository.deleteItemsOfIdleCarts(cartIds, cutoff);
+                    cartRepository.resetIdleCartTotals(cartIds, cutoff, BigDecimal.ZERO);
+                    return count;
+                });
+
+                cartsSwept += cartIds.size();
+                itemsDeleted += deleted != null ? deleted : 0;
+                log.debug("Swept {} carts ({} items) up to cart {}", cartIds.size(), deleted, lastId);
+
+                if (chunk.size() < batchSize) {
+                    break;
+                }
+                throttle(cartIds.size(), System.currentTimeMillis() - chunkStartedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Abandoned cart sweep interrupted");
+        } catch (Exception e) {
+            log.error("Abandoned cart sweep failed: {}", e.getMessage(), e);
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            lastRunDurationMs = System.currentTimeMillis() - startedAt;
+            lastRunCartsSwept = cartsSwept;
+            lastRunItemsDeleted = itemsDeleted;
+            totalRuns.incrementAndGet();
+            totalCartsSwept.addAndGet(cartsSwept);
+            totalItemsDeleted.addAndGet(itemsDeleted);
+            running.set(false);
+
+            log.info("Abandoned cart sweep finished - carts: {}, items deleted: {}, duration: {} ms",
+                    cartsSwept, itemsDeleted, lastRunDurationMs);
+        }
+
+        return getStats();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("idleDays", idleDays);
+        stats.put("batchSize", batchSize);
+        stats.put("maxRowsPerSecond", maxRowsPerSecond);
+        stats.put("totalRuns", totalRuns.get());
+        stats.put("totalCartsSwept", totalCartsSwept.get());
+        stats.put("totalItemsDeleted", totalItemsDeleted.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("lastRunCartsSwept", lastRunCartsSwept);
+        stats.put("lastRunItemsDeleted", lastRunItemsDeleted);
+        return stats;
+    }
+
+    // Sleep long enough that this chunk does not exceed the configured rows-per-second budget
+    private void throttle(int rows, long elapsedMs) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long budgetMs = (rows * 1000L) / maxRowsPerSecond;
+        if (budgetMs > elapsedMs) {
+            Thread.sleep(budgetMs - elapsedMs);
+        }
+    }
+}
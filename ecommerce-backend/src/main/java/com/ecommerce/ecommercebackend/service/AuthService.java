@@ -11,8 +11,13 @@ import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
 import com.ecommerce.ecommercebackend.exception.TokenExpiredException;
 import com.ecommerce.ecommercebackend.repository.CartRepository;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.security.AccountVersionCache;
 import com.ecommerce.ecommercebackend.security.CustomUserDetails;
 import com.ecommerce.ecommercebackend.security.JwtService;
+import com.ecommerce.ecommercebackend.security.TokenRevocationService;
+import com.ecommerce.ecommercebackend.security.VerifiedToken;
+import com.ecommerce.ecommercebackend.service.admin.UserStatsCache;
+import com.ecommerce.ecommercebackend.service.search.UserSearchIndex;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +35,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -44,6 +50,10 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final CartRepository cartRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final AccountVersionCache accountVersionCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserStatsCache userStatsCache;
 
     public AuthResponse register(RegisterRequest request) {
         log.info("Starting registration for email: {}", request.getEmail());
@@ -71,6 +81,8 @@ public class AuthService {
             log.debug("Saving user to database: {}", request.getEmail());
             User savedUser = userRepository.save(user);
             log.info("User saved with ID: {}", savedUser.getId());
+            userSearchIndex.index(savedUser);
+            userStatsCache.userRegistered(savedUser);
 
             // NOW create cart for the user (separate transaction)
             ensureUserHasCart(savedUser);
@@ -160,7 +172,13 @@ public class AuthService {
         log.debug("Refreshing token");
 
         try {
-            String email = jwtService.extractUsername(refreshToken);
+            VerifiedToken verifiedToken = jwtService.verify(refreshToken);
+            String email = verifiedToken.getSubject();
+
+            if (tokenRevocationService.isRevoked(verifiedToken.getJti())) {
+                log.warn("Revoked refresh token used for user: {}", email);
+                throw new InvalidCredentialsException("Invalid refresh token");
+            }
 
             if (email == null) {
                 log.warn("Invalid refresh token - cannot extract username");
@@ -173,7 +191,7 @@ public class AuthService {
             // Convert User to UserDetails for validation
             UserDetails userDetails = new CustomUserDetails(user);
 
-            if (!jwtService.isTokenValid(refreshToken, userDetails)) {
+            if (!jwtService.isTokenValid(verifiedToken, userDetails)) {
                 log.warn("Invalid refresh token for user: {}", email);
                 throw new InvalidCredentialsException("Invalid refresh token");
             }
@@ -208,6 +226,7 @@ public class AuthService {
         user.setIsEmailVerified(true);
         user.setEmailVerificationToken(null);
         userRepository.save(user);
+        userStatsCache.emailVerified();
 
         log.info("Email verified for user: {}", user.getEmail());
 
@@ -277,11 +296,32 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setPasswordResetToken(null);
         user.setPasswordResetExpiry(null);
+
+        // Invalidate every token issued with the old password
+        int tokenVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(tokenVersion + 1);
         userRepository.save(user);
+        accountVersionCache.update(user.getId(), user.getTokenVersion());
 
         log.info("Password reset successfully for user: {}", user.getEmail());
     }
 
+    public void logout(String accessToken, String refreshToken) {
+        revokeQuietly(accessToken);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            revokeQuietly(refreshToken);
+        }
+    }
+
+    // Already invalid or expired tokens need no revocation
+    private void revokeQuietly(String token) {
+        try {
+            tokenRevocationService.revoke(jwtService.verify(token));
+        } catch (Exception e) {
+            log.debug("Skipping revocation of invalid token: {}", e.getMessage());
+        }
+    }
+
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -296,6 +336,30 @@ public class AuthService {
         return getUserByEmail(email);
     }
 
+    // Principal populated by JwtAuthenticationFilter - no database access
+    public CustomUserDetails getCurrentUserDetails() {
+        return findCurrentUserDetails()
+                .orElseThrow(() -> new InvalidCredentialsException("User not authenticated"));
+    }
+
+    public Optional<CustomUserDetails> findCurrentUserDetails() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+
+    public Long getCurrentUserId() {
+        return getCurrentUserDetails().getUserId();
+    }
+
+    // Uninitialized proxy for the current user, for setting associations without a SELECT
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
     private AuthResponse.UserResponse mapToUserResponse(User user) {
         return AuthResponse.UserResponse.builder()
                 .id(user.getId())
@@ -334,7 +398,9 @@ public class AuthService {
                 // Initialize cart for admin
                 admin.initializeCart();
 
-                userRepository.save(admin);
+                User savedAdmin = userRepository.save(admin);
+                userSearchIndex.index(savedAdmin);
+                userStatsCache.userRegistered(savedAdmin);
                 log.info("✅ Admin user created successfully");
             } else {
                 log.info("✅ Admin user already exists");
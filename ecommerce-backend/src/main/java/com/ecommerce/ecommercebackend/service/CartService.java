@@ -8,8 +8,10 @@ import com.ecommerce.ecommercebackend.repository.CartRepository;
 import com.ecommerce.ecommercebackend.repository.CartItemRepository;
 import com.ecommerce.ecommercebackend.repository.ProductRepository;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.security.CustomUserDetails;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,15 +37,15 @@ public class CartService {
     @Transactional(readOnly = true)
     public CartDTO getCurrentUserCart() {
         try {
-            User currentUser = authService.getCurrentUser();
-            log.info("Step 1: Got current user: {}", currentUser.getId());
+            CustomUserDetails currentUser = authService.getCurrentUserDetails();
+            log.info("Step 1: Got current user: {}", currentUser.getUserId());
 
             // Find cart or create one if it doesn't exist
-            Cart cart = cartRepository.findByUserId(currentUser.getId())
+            Cart cart = cartRepository.findByUserId(currentUser.getUserId())
                     .orElseGet(() -> {
-                        log.info("Step 2: Creating new cart for user: {}", currentUser.getId());
+                        log.info("Step 2: Creating new cart for user: {}", currentUser.getUserId());
                         Cart newCart = new Cart();
-                        newCart.setUser(currentUser);
+                        newCart.setUser(userRepository.getReferenceById(currentUser.getUserId()));
                         newCart.setTotalAmount(BigDecimal.ZERO);
                         newCart.setTotalItems(0);
                         newCart.setCreatedAt(LocalDateTime.now());
@@ -86,10 +88,10 @@ public class CartService {
 
             // Try to get user info for the response
             try {
-                User currentUser = authService.getCurrentUser();
-                emptyCart.setUserId(currentUser.getId());
+                CustomUserDetails currentUser = authService.getCurrentUserDetails();
+                emptyCart.setUserId(currentUser.getUserId());
                 emptyCart.setUserEmail(currentUser.getEmail());
-                log.info("Returning empty cart for user: {}", currentUser.getId());
+                log.info("Returning empty cart for user: {}", currentUser.getUserId());
             } catch (Exception ex) {
                 log.error("Could not get user info for empty cart: {}", ex.getMessage());
             }
@@ -102,13 +104,13 @@ public class CartService {
     @Transactional
     public CartDTO addItemToCart(CartItemRequest request) {
         try {
-            User currentUser = authService.getCurrentUser();
+            Long currentUserId = authService.getCurrentUserId();
             log.info("Adding item to cart - user: {}, product: {}, quantity: {}",
-                    currentUser.getId(), request.getProductId(), request.getQuantity());
+                    currentUserId, request.getProductId(), request.getQuantity());
 
             // Get or create cart
-            Cart cart = cartRepository.findByUserId(currentUser.getId())
-                    .orElseGet(() -> createCartForUser(currentUser.getId()));
+            Cart cart = cartRepository.findByUserId(currentUserId)
+                    .orElseGet(() -> createCartForUser(currentUserId));
 
             // Get product
             Product product = productRepository.findById(request.getProductId())
@@ -211,8 +213,7 @@ public class CartService {
     @Transactional
     public CartDTO clearCart() {
         try {
-            User currentUser = authService.getCurrentUser();
-            Cart cart = cartRepository.findByUserId(currentUser.getId())
+            Cart cart = cartRepository.findByUserId(authService.getCurrentUserId())
                     .orElseThrow(() -> new RuntimeException("Cart not found"));
 
             cartItemRepository.deleteByCartId(cart.getId());
@@ -234,9 +235,9 @@ public class CartService {
     @Transactional(readOnly = true)
     public Integer getCartItemCount() {
         try {
-            User currentUser = authService.getCurrentUser();
-            Cart cart = cartRepository.findByUserId(currentUser.getId())
-                    .orElseGet(() -> createCartForUser(currentUser.getId()));
+            Long currentUserId = authService.getCurrentUserId();
+            Cart cart = cartRepository.findByUserId(currentUserId)
+                    .orElseGet(() -> createCartForUser(currentUserId));
 
             return cart.getTotalItems();
 
@@ -327,7 +328,7 @@ public class CartService {
 
         dto.setId(cart.getId());
         dto.setUserId(cart.getUser() != null ? cart.getUser().getId() : null);
-        dto.setUserEmail(cart.getUser() != null ? cart.getUser().getEmail() : null);
+        dto.setUserEmail(resolveUserEmail(cart.getUser()));
         dto.setTotalAmount(cart.getTotalAmount() != null ? cart.getTotalAmount() : BigDecimal.ZERO);
         dto.setTotalItems(cart.getTotalItems() != null ? cart.getTotalItems() : 0);
         dto.setCreatedAt(cart.getCreatedAt());
@@ -357,6 +358,20 @@ public class CartService {
         return dto;
     }
 
+    // Read the owner's email from the principal when it matches, so the lazy user proxy stays uninitialized
+    private String resolveUserEmail(User user) {
+        if (user == null) {
+            return null;
+        }
+        if (!Hibernate.isInitialized(user)) {
+            Optional<CustomUserDetails> principal = authService.findCurrentUserDetails();
+            if (principal.isPresent() && principal.get().getUserId().equals(user.getId())) {
+                return principal.get().getEmail();
+            }
+        }
+        return user.getEmail();
+    }
+
     private CartDTO createEmptyCartDTO() {
         CartDTO dto = new CartDTO();
         dto.setCartItems(Collections.emptyList());
@@ -2,6 +2,8 @@ package com.ecommerce.ecommercebackend.service;
 
 import com.ecommerce.ecommercebackend.dto.OrderDTO;
 
+import java.util.List;
+
 public interface EmailService {
     void sendVerificationEmail(String to, String token);
     void sendPasswordResetEmail(String to, String token);
@@ -9,5 +11,8 @@ public interface EmailService {
     void sendOrderConfirmation(OrderDTO order);
     void sendOrderShippedEmail(OrderDTO order, String trackingNumber);
     void sendOrderDeliveredEmail(OrderDTO order);
+    // Bulk variants: the whole list is sent from a single background task, in order
+    void sendOrderShippedEmails(List<OrderDTO> orders);
+    void sendOrderDeliveredEmails(List<OrderDTO> orders);
     void sendWelcomeEmail(String to, String customerName);
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -72,7 +73,7 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-    @Async
+    @Async("emailTaskExecutor")
     @Override
     public void sendOrderConfirmation(OrderDTO order) {
         log.info("🎯 EMAIL SERVICE - sendOrderConfirmation called");
@@ -106,7 +107,7 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-    @Async
+    @Async("emailTaskExecutor")
     @Override
     public void sendOrderShippedEmail(OrderDTO order, String trackingNumber) {
         if (order == null || order.getUserEmail() == null) {
@@ -130,7 +131,7 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-    @Async
+    @Async("emailTaskExecutor")
     @Override
     public void sendOrderDeliveredEmail(OrderDTO order) {
         if (order == null || order.getUserEmail() == null) {
@@ -154,6 +155,25 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    // Self-invocation bypasses the @Async proxy, so each message is sent on this task's thread
+    @Async("emailTaskExecutor")
+    @Override
+    public void sendOrderShippedEmails(List<OrderDTO> orders) {
+        log.info("Sending {} order shipped emails", orders.size());
+        for (OrderDTO order : orders) {
+            sendOrderShippedEmail(order, order.getTrackingNumber());
+        }
+    }
+
+    @Async("emailTaskExecutor")
+    @Override
+    public void sendOrderDeliveredEmails(List<OrderDTO> orders) {
+        log.info("Sending {} order delivered emails", orders.size());
+        for (OrderDTO order : orders) {
+            sendOrderDeliveredEmail(order);
+        }
+    }
+
     @Override
     public void sendOrderConfirmation(String to, String orderNumber, String customerName) {
         String subject = "Order Confirmation #" + orderNumber + " - E-commerce Store";
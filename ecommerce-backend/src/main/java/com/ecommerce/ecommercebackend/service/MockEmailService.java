@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @Profile("dev")  // Only use in "dev" profile
 @Slf4j
@@ -56,6 +58,16 @@ public class MockEmailService implements EmailService {
                 order != null ? order.getUserEmail() : "N/A");
     }
 
+    @Override
+    public void sendOrderShippedEmails(List<OrderDTO> orders) {
+        orders.forEach(order -> sendOrderShippedEmail(order, order.getTrackingNumber()));
+    }
+
+    @Override
+    public void sendOrderDeliveredEmails(List<OrderDTO> orders) {
+        orders.forEach(this::sendOrderDeliveredEmail);
+    }
+
     @Override
     public void sendWelcomeEmail(String to, String customerName) {
         log.warn("⚠️ [MOCK EMAIL - Development Only] Welcome email to: {} for customer: {}", to, customerName);
@@ -5,6 +5,10 @@ import com.ecommerce.ecommercebackend.dto.OrderDTO;
 import com.ecommerce.ecommercebackend.dto.OrderRequestDTO;
 import com.ecommerce.ecommercebackend.entity.*;
 import com.ecommerce.ecommercebackend.repository.*;
+import com.ecommerce.ecommercebackend.security.CustomUserDetails;
+import com.ecommerce.ecommercebackend.service.order.OrderStateMachine;
+import com.ecommerce.ecommercebackend.service.order.OrderStatusHistoryRecorder;
+import com.ecommerce.ecommercebackend.service.search.OrderSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
@@ -29,16 +33,22 @@ public class OrderService {
     private final AuthService authService;
     private final OrderItemRepository orderItemRepository;
     private final EmailService emailService;
+    private final SalesRollupService salesRollupService;
+    private final PopularProductsTracker popularProductsTracker;
+    private final RealtimeSalesMetrics realtimeSalesMetrics;
+    private final OrderStatusHistoryRecorder statusHistoryRecorder;
+    private final OrderSearchIndex orderSearchIndex;
+    private final OrderStateMachine orderStateMachine;
 
     @Transactional
     public OrderDTO createOrder(OrderRequestDTO request) {
-        User currentUser = authService.getCurrentUser();
+        CustomUserDetails currentUser = authService.getCurrentUserDetails();
         log.info("=== STARTING ORDER CREATION ===");
         log.info("User: {}", currentUser.getEmail());
 
         try {
             // Get user's cart
-            Cart cart = cartRepository.findByUserId(currentUser.getId())
+            Cart cart = cartRepository.findByUserId(currentUser.getUserId())
                     .orElseThrow(() -> new RuntimeException("Cart not found"));
 
             // Get cart items with products
@@ -57,7 +67,7 @@ public class OrderService {
 
             // Create order
             Order order = new Order();
-            order.setUser(currentUser);
+            order.setUser(userRepository.getReferenceById(currentUser.getUserId()));
             order.setOrderNumber(generateOrderNumber());
             order.setStatus(Order.OrderStatus.PENDING);
             order.setPaymentMethod(request.getPaymentMethod());
@@ -109,6 +119,14 @@ public class OrderService {
                 productRepository.save(product);
             }
 
+            // Keep the daily sales rollup in step
+            long itemsSold = cartItems.stream().mapToLong(CartItem::getQuantity).sum();
+            salesRollupService.recordOrderCreated(order, itemsSold);
+            statusHistoryRecorder.record(order, null, "Order placed");
+            orderSearchIndex.onOrderPlaced(order);
+            popularProductsTracker.recordSale(savedOrderItems);
+            realtimeSalesMetrics.recordOrderPlaced(order);
+
             // Clear cart
             cartItemRepository.deleteByCartId(cart.getId());
             cart.setTotalAmount(BigDecimal.ZERO);
@@ -199,15 +217,15 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long orderId) {
-        User currentUser = authService.getCurrentUser();
-        log.info("Fetching order: {} for user: {}", orderId, currentUser.getId());
+        Long currentUserId = authService.getCurrentUserId();
+        log.info("Fetching order: {} for user: {}", orderId, currentUserId);
 
         try {
             Order order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
 
             // Check if order belongs to current user
-            if (!order.getUser().getId().equals(currentUser.getId())) {
+            if (!order.getUser().getId().equals(currentUserId)) {
                 throw new RuntimeException("Unauthorized access to order");
             }
 
@@ -229,11 +247,11 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public List<OrderDTO> getUserOrders() {
-        User currentUser = authService.getCurrentUser();
-        log.info("Fetching orders for user: {}", currentUser.getId());
+        Long currentUserId = authService.getCurrentUserId();
+        log.info("Fetching orders for user: {}", currentUserId);
 
         try {
-            List<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
+            List<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(currentUserId);
             log.info("Found {} orders for user", orders.size());
 
             List<OrderDTO> orderDTOs = new ArrayList<>();
@@ -258,8 +276,8 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderDTO getOrderByNumber(String orderNumber) {
-        User currentUser = authService.getCurrentUser();
-        log.info("Fetching order by number: {} for user: {}", orderNumber, currentUser.getId());
+        Long currentUserId = authService.getCurrentUserId();
+        log.info("Fetching order by number: {} for user: {}", orderNumber, currentUserId);
 
         try {
             // First get the order
@@ -267,10 +285,10 @@ public class OrderService {
                     .orElseThrow(() -> new RuntimeException("Order not found with number: " + orderNumber));
 
             log.info("Order found: ID={}, UserID={}, CurrentUserID={}",
-                    order.getId(), order.getUser().getId(), currentUser.getId());
+                    order.getId(), order.getUser().getId(), currentUserId);
 
             // Check authorization
-            if (!order.getUser().getId().equals(currentUser.getId())) {
+            if (!order.getUser().getId().equals(currentUserId)) {
                 throw new RuntimeException("Unauthorized access to order");
             }
 
@@ -288,8 +306,7 @@ public class OrderService {
             OrderDTO dto = new OrderDTO();
             dto.setId(order.getId());
             dto.setOrderNumber(order.getOrderNumber());
-            dto.setUserId(order.getUser().getId());
-            dto.setUserName(order.getUser().getFullName());
+            applyUserInfo(dto, order.getUser());
             dto.setTotalAmount(order.getTotalAmount());
             dto.setSubtotal(order.getSubtotal());
             dto.setTaxAmount(order.getTaxAmount());
@@ -365,14 +382,14 @@ public class OrderService {
 
     @Transactional
     public OrderDTO cancelOrder(Long orderId) {
-        User currentUser = authService.getCurrentUser();
-        log.info("Cancelling order: {} for user: {}", orderId, currentUser.getId());
+        Long currentUserId = authService.getCurrentUserId();
+        log.info("Cancelling order: {} for user: {}", orderId, currentUserId);
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Check if order belongs to current user
-        if (!order.getUser().getId().equals(currentUser.getId())) {
+        if (!order.getUser().getId().equals(currentUserId)) {
             throw new RuntimeException("Unauthorized access to order");
         }
 
@@ -381,20 +398,11 @@ public class OrderService {
             throw new RuntimeException("Order cannot be cancelled at this stage");
         }
 
-        // Cancel order
-        order.cancelOrder();
+        // Cancel order; the state machine restores stock and updates history and metrics
+        orderStateMachine.transition(order, Order.OrderStatus.CANCELLED, "Cancelled by customer");
+        order.setPaymentStatus(Order.PaymentStatus.REFUNDED);
         order = orderRepository.save(order);
 
-        // Restore product stock
-        Set<OrderItem> orderItems = order.getOrderItems();
-        for (OrderItem orderItem : orderItems) {
-            Product product = orderItem.getProduct();
-            if (product != null) {
-                product.setStockQuantity(product.getStockQuantity() + orderItem.getQuantity());
-                productRepository.save(product);
-            }
-        }
-
         log.info("Order cancelled: {}", order.getOrderNumber());
         return convertToSimpleDTO(order);
     }
@@ -415,8 +423,7 @@ public class OrderService {
         dto.setOrderNumber(order.getOrderNumber());
 
         if (order.getUser() != null) {
-            dto.setUserId(order.getUser().getId());
-            dto.setUserName(order.getUser().getFullName());
+            applyUserInfo(dto, order.getUser());
         }
 
         dto.setTotalAmount(order.getTotalAmount());
@@ -482,6 +489,23 @@ public class OrderService {
         return dto;
     }
 
+    // Take user fields from the principal when it owns the order and was loaded from the database,
+    // so the lazy user proxy stays uninitialized; token-built principals carry no names
+    private void applyUserInfo(OrderDTO dto, User user) {
+        dto.setUserId(user.getId());
+
+        Optional<CustomUserDetails> principal = authService.findCurrentUserDetails();
+        if (!Hibernate.isInitialized(user) && principal.isPresent()
+                && principal.get().getUserId().equals(user.getId())
+                && principal.get().getFirstName() != null) {
+            dto.setUserName(principal.get().getFullName());
+            dto.setUserEmail(principal.get().getEmail());
+        } else {
+            dto.setUserName(user.getFullName());
+            dto.setUserEmail(user.getEmail());
+        }
+    }
+
     private OrderDTO.OrderItemDTO convertToOrderItemDTO(OrderItem orderItem) {
         if (orderItem == null) return null;
 
@@ -502,9 +526,7 @@ public class OrderService {
         // Basic order info
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
-        dto.setUserId(order.getUser().getId());
-        dto.setUserName(order.getUser().getFullName());
-        dto.setUserEmail(order.getUser().getEmail());
+        applyUserInfo(dto, order.getUser());
 
         // Amounts
         dto.setTotalAmount(order.getTotalAmount());
@@ -0,0 +1,243 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.entity.OrderItem;
+import com.ecommerce.ecommercebackend.repository.OrderRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory popular-products leaderboard (units sold and revenue per product), kept with the
+ * Space-Saving algorithm: at most {@code capacity} counters, and a new product evicts the
+ * smallest one and inherits its count as an error bound. Heavy hitters are exact once tracked;
+ * the tail is approximate until the next reconcile from SQL replaces the counters wholesale.
+ * Updates are applied after the order transaction commits, so rolled-back orders never count.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PopularProductsTracker {
+
+    private final OrderRepository orderRepository;
+
+    // Number of counters kept; the leaderboard is reliable for the top few dozen well below this
+    @Value("${app.dashboard.top-products.capacity:200}")
+    private int capacity;
+
+    private final Map<Long, Counter> counters = new HashMap<>();
+    // Sales applied while a reconcile query runs, replayed onto its result before it is swapped in.
+    // Guarded by counters, like the counters themselves.
+    private List<Delta> journal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    // Replaces the counters with exact totals, correcting drift and sales made on other instances
+    @Scheduled(fixedDelayString = "${app.dashboard.top-products.reconcile-ms:900000}",
+            initialDelayString = "${app.dashboard.top-products.reconcile-ms:900000}")
+    public void reconcile() {
+        synchronized (counters) {
+            if (journal != null) {
+                return;
+            }
+            journal = new ArrayList<>();
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+            // [productId, name, imageUrl, totalSold, revenue]
+            List<Object[]> rows = orderRepository.findPopularProductsExcluding(
+                    Order.OrderStatus.CANCELLED, Pageable.ofSize(capacity));
+
+            Map<Long, Counter> fresh = new HashMap<>();
+            for (Object[] row : rows) {
+                Counter counter = new Counter((Long) row[0], (String) row[1], (String) row[2]);
+                counter.units = ((Number) row[3]).longValue();
+                counter.revenue = row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO;
+                fresh.put(counter.productId, counter);
+            }
+
+            int replayed;
+            synchronized (counters) {
+                counters.clear();
+                counters.putAll(fresh);
+                // Sales that committed after the aggregate query read its rows are not in fresh
+                replayed = journal.size();
+                for (Delta delta : journal) {
+                    applyLocked(delta.sales(), delta.sign());
+                }
+            }
+            log.info("Popular products reconciled: {} products in {} ms, {} concurrent updates replayed",
+                    fresh.size(), System.currentTimeMillis() - startedAt, replayed);
+        } catch (Exception e) {
+            log.error("Failed to reconcile popular products: {}", e.getMessage());
+        } finally {
+            synchronized (counters) {
+                journal = null;
+            }
+        }
+    }
+
+    public void recordSale(Collection<OrderItem> items) {
+        afterCommit(toSales(items), 1);
+    }
+
+    public void recordCancellation(Collection<OrderItem> items) {
+        afterCommit(toSales(items), -1);
+    }
+
+    /**
+     * Current leaderboard, highest units first. Entries are copies and safe to hand out.
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>();
+        synchronized (counters) {
+            for (Counter counter : counters.values()) {
+                if (counter.units > 0) {
+                    entries.add(new Entry(counter.productId, counter.name, counter.imageUrl,
+                            counter.units, counter.revenue, counter.error));
+                }
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::getUnits).reversed()
+                .thenComparing(Entry::getRevenue, Comparator.reverseOrder()));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    // ============= HELPERS =============
+
+    // Copies what we need while the items are still attached
+    private List<Sale> toSales(Collection<OrderItem> items) {
+        List<Sale> sales = new ArrayList<>();
+        if (items == null) {
+            return sales;
+        }
+        for (OrderItem item : items) {
+            if (item.getProduct() == null || item.getQuantity() == null) {
+                continue;
+            }
+            sales.add(new Sale(item.getProduct().getId(), item.getProductName(), item.getProductImageUrl(),
+                    item.getQuantity(), item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO));
+        }
+        return sales;
+    }
+
+    private void afterCommit(List<Sale> sales, int sign) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(sales, sign);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(sales, sign);
+            }
+        });
+    }
+
+    private void apply(List<Sale> sales, int sign) {
+        synchronized (counters) {
+            applyLocked(sales, sign);
+            if (journal != null) {
+                journal.add(new Delta(sales, sign));
+            }
+        }
+    }
+
+    // Caller holds the counters lock
+    private void applyLocked(List<Sale> sales, int sign) {
+        for (Sale sale : sales) {
+            if (sign > 0) {
+                increment(sale);
+            } else {
+                decrement(sale);
+            }
+        }
+    }
+
+    private void increment(Sale sale) {
+        Counter counter = counters.get(sale.productId());
+        if (counter == null) {
+            counter = new Counter(sale.productId(), sale.name(), sale.imageUrl());
+            if (counters.size() >= capacity) {
+                // Space-Saving: take over the smallest counter and inherit its count as error
+                Counter min = null;
+                for (Counter candidate : counters.values()) {
+                    if (min == null || candidate.units < min.units) {
+                        min = candidate;
+                    }
+                }
+                counters.remove(min.productId);
+                counter.units = min.units;
+                counter.error = min.units;
+            }
+            counters.put(counter.productId, counter);
+        }
+        counter.units += sale.quantity();
+        counter.revenue = counter.revenue.add(sale.subtotal());
+    }
+
+    private void decrement(Sale sale) {
+        Counter counter = counters.get(sale.productId());
+        if (counter == null) {
+            // Not tracked (or evicted) - nothing to take back
+            return;
+        }
+        counter.units = Math.max(0, counter.units - sale.quantity());
+        counter.revenue = counter.revenue.subtract(sale.subtotal()).max(BigDecimal.ZERO);
+    }
+
+    private record Sale(Long productId, String name, String imageUrl, int quantity, BigDecimal subtotal) {
+    }
+
+    private record Delta(List<Sale> sales, int sign) {
+    }
+
+    private static final class Counter {
+        private final Long productId;
+        private final String name;
+        private final String imageUrl;
+        private long units;
+        private long error;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        Counter(Long productId, String name, String imageUrl) {
+            this.productId = productId;
+            this.name = name;
+            this.imageUrl = imageUrl;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Entry {
+        private final Long productId;
+        private final String name;
+        private final String imageUrl;
+        private final long units;
+        private final BigDecimal revenue;
+        // Upper bound on how much of units may belong to previously evicted products
+        private final long error;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.admin.RealtimeSalesDTO;
+import com.ecommerce.ecommercebackend.entity.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Orders and revenue over the last 5 minutes / hour / 24 hours, kept in memory so the dashboard
+ * never has to query orders for them. Three ring buffers of per-second, per-minute and per-hour
+ * buckets are updated with CAS only; a slot whose epoch is stale is simply overwritten, so there
+ * is no cleanup thread. Reads sum a fixed number of slots (300 + 60 + 24) regardless of volume.
+ */
+@Component
+public class RealtimeSalesMetrics {
+
+    private static final int SECONDS = 300;
+    private static final int MINUTES = 60;
+    private static final int HOURS = 24;
+
+    private final Ring perSecond = new Ring(SECONDS, 1_000L);
+    private final Ring perMinute = new Ring(MINUTES, 60_000L);
+    private final Ring perHour = new Ring(HOURS, 3_600_000L);
+
+    private final LocalDateTime trackingSince = LocalDateTime.now();
+
+    public void recordOrderPlaced(Order order) {
+        long cents = toCents(order.getTotalAmount());
+        afterCommit(() -> add(1, cents, 0, 0));
+    }
+
+    public void recordOrderCancelled(Order order) {
+        long cents = toCents(order.getTotalAmount());
+        afterCommit(() -> add(0, 0, 1, cents));
+    }
+
+    public RealtimeSalesDTO snapshot() {
+        long now = System.currentTimeMillis();
+
+        RealtimeSalesDTO dto = new RealtimeSalesDTO();
+        dto.setLast5Minutes(toWindow(perSecond.sum(now)));
+        dto.setLastHour(toWindow(perMinute.sum(now)));
+        dto.setLast24Hours(toWindow(perHour.sum(now)));
+        dto.setTrackingSince(trackingSince.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        dto.setGeneratedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return dto;
+    }
+
+    // ============= HELPERS =============
+
+    private void add(long orders, long cents, long cancelled, long cancelledCents) {
+        long now = System.currentTimeMillis();
+        perSecond.add(now, orders, cents, cancelled, cancelledCents);
+        perMinute.add(now, orders, cents, cancelled, cancelledCents);
+        perHour.add(now, orders, cents, cancelled, cancelledCents);
+    }
+
+    // Rolled-back orders must not show up on the dashboard
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).longValue();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static RealtimeSalesDTO.WindowDTO toWindow(Bucket total) {
+        RealtimeSalesDTO.WindowDTO window = new RealtimeSalesDTO.WindowDTO();
+        window.setOrders(total.orders());
+        window.setRevenue(fromCents(total.cents()));
+        window.setCancelledOrders(total.cancelled());
+        window.setCancelledRevenue(fromCents(total.cancelledCents()));
+        window.setNetRevenue(fromCents(total.cents() - total.cancelledCents()));
+        return window;
+    }
+
+    // Immutable so a whole bucket can be swapped with one CAS
+    record Bucket(long epoch, long orders, long cents, long cancelled, long cancelledCents) {
+    }
+
+    static final class Ring {
+        private final int size;
+        private final long unitMillis;
+        private final AtomicReferenceArray<Bucket> slots;
+
+        Ring(int size, long unitMillis) {
+            this.size = size;
+            this.unitMillis = unitMillis;
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        void add(long nowMillis, long orders, long cents, long cancelled, long cancelledCents) {
+            long epoch = nowMillis / unitMillis;
+            int index = (int) (epoch % size);
+            while (true) {
+                Bucket current = slots.get(index);
+                Bucket next = current == null || current.epoch() != epoch
+                        ? new Bucket(epoch, orders, cents, cancelled, cancelledCents)
+                        : new Bucket(epoch, current.orders() + orders, current.cents() + cents,
+                        current.cancelled() + cancelled, current.cancelledCents() + cancelledCents);
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        // Sums buckets whose epoch falls inside the window; stale slots are skipped, not cleared
+        Bucket sum(long nowMillis) {
+            long epoch = nowMillis / unitMillis;
+            long oldest = epoch - size + 1;
+            long orders = 0, cents = 0, cancelled = 0, cancelledCents = 0;
+            for (int i = 0; i < size; i++) {
+                Bucket bucket = slots.get(i);
+                if (bucket != null && bucket.epoch() >= oldest && bucket.epoch() <= epoch) {
+                    orders += bucket.orders();
+                    cents += bucket.cents();
+                    cancelled += bucket.cancelled();
+                    cancelledCents += bucket.cancelledCents();
+                }
+            }
+            return new Bucket(epoch, orders, cents, cancelled, cancelledCents);
+        }
+    }
+}
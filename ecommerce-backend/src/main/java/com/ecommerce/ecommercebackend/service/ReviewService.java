@@ -1,5 +1,6 @@
 package com.ecommerce.ecommercebackend.service;
 
+import com.ecommerce.ecommercebackend.dto.KeysetPageDTO;
 import com.ecommerce.ecommercebackend.dto.ReviewDTO;
 import com.ecommerce.ecommercebackend.entity.*;
 import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
@@ -9,10 +10,15 @@ import com.ecommerce.ecommercebackend.repository.ReviewVoteRepository;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +31,42 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReviewService {
 
+    // First-page positions: every review sorts after these
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private enum ReviewSort {
+        NEWEST, OLDEST, HELPFUL, RATING_HIGH, RATING_LOW;
+
+        // Unknown values fall back to newest, as before
+        static ReviewSort fromParam(String sortBy) {
+            if (sortBy != null) {
+                for (ReviewSort sort : values()) {
+                    if (sort.name().equalsIgnoreCase(sortBy.trim())) {
+                        return sort;
+                    }
+                }
+            }
+            return NEWEST;
+        }
+    }
+
+    private enum ReviewFilter {
+        ALL, VERIFIED, WITH_IMAGES;
+
+        // Unknown values fall back to all reviews
+        static ReviewFilter fromParam(String filter) {
+            if (filter != null) {
+                for (ReviewFilter value : values()) {
+                    if (value.name().equalsIgnoreCase(filter.trim())) {
+                        return value;
+                    }
+                }
+            }
+            return ALL;
+        }
+    }
+
     private final ReviewRepository reviewRepository;
     private final ReviewVoteRepository reviewVoteRepository;
     private final ProductRepository productRepository;
@@ -68,19 +110,43 @@ public class ReviewService {
         return convertToDTO(savedReview, userId);
     }
 
-    // Get all reviews for a product
-    public List<ReviewDTO> getProductReviews(Long productId, String sortBy, Long currentUserId) {
-        List<Review> reviews;
-
-        if ("oldest".equals(sortBy)) {
-            reviews = reviewRepository.findByProductIdOrderByCreatedAtAsc(productId);
-        } else { // default: newest
-            reviews = reviewRepository.findByProductIdOrderByCreatedAtDesc(productId);
-        }
-
-        return reviews.stream()
-                .map(review -> convertToDTO(review, currentUserId))
-                .collect(Collectors.toList());
+    // Get one page of reviews for a product, continuing after the cursor of the previous page. One
+    // indexed range query for the page (author and product fetched with it) and one for the
+    // current user's votes, however many reviews the product has
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<ReviewDTO> getProductReviews(Long productId, String sortBy, String filter,
+                                                      Long currentUserId, String cursor, int size) {
+        ReviewSort sort = ReviewSort.fromParam(sortBy);
+        ReviewFilter reviewFilter = ReviewFilter.fromParam(filter);
+        boolean verifiedOnly = reviewFilter == ReviewFilter.VERIFIED;
+        boolean withImages = reviewFilter == ReviewFilter.WITH_IMAGES;
+        String[] position = decodeCursor(cursor);
+        Long afterId = position != null ? parseCursorId(position[1]) : null;
+        // One extra row tells whether another page follows
+        Pageable limit = Pageable.ofSize(size + 1);
+
+        List<Review> reviews = switch (sort) {
+            case NEWEST -> reviewRepository.findNewestAfter(productId,
+                    position != null ? parseCursorDate(position[0]) : LATEST,
+                    afterId != null ? afterId : Long.MAX_VALUE, verifiedOnly, withImages, limit);
+            case OLDEST -> reviewRepository.findOldestAfter(productId,
+                    position != null ? parseCursorDate(position[0]) : EARLIEST,
+                    afterId != null ? afterId : 0L, verifiedOnly, withImages, limit);
+            case HELPFUL -> reviewRepository.findMostHelpfulAfter(productId,
+                    position != null ? parseCursorInt(position[0]) : Integer.MAX_VALUE,
+                    afterId != null ? afterId : Long.MAX_VALUE, verifiedOnly, withImages, limit);
+            case RATING_HIGH -> reviewRepository.findHighestRatedAfter(productId,
+                    position != null ? parseCursorInt(position[0]) : Integer.MAX_VALUE,
+                    afterId != null ? afterId : Long.MAX_VALUE, verifiedOnly, withImages, limit);
+            case RATING_LOW -> reviewRepository.findLowestRatedAfter(productId,
+                    position != null ? parseCursorInt(position[0]) : 0,
+                    afterId != null ? afterId : 0L, verifiedOnly, withImages, limit);
+        };
+
+        boolean hasNext = reviews.size() > size;
+        List<Review> page = hasNext ? reviews.subList(0, size) : reviews;
+        String nextCursor = hasNext ? encodeCursor(sort, page.get(page.size() - 1)) : null;
+        return new KeysetPageDTO<>(convertToDTOs(page, currentUserId), page.size(), nextCursor, hasNext);
     }
 
     // Get review statistics for a product
@@ -169,6 +235,8 @@ public class ReviewService {
 
         // Check if user already voted
         Optional<ReviewVote> existingVote = reviewVoteRepository.findByUserIdAndReviewId(userId, reviewId);
+        int helpfulDelta = 0;
+        int unhelpfulDelta = 0;
 
         if (existingVote.isPresent()) {
             ReviewVote vote = existingVote.get();
@@ -176,10 +244,14 @@ public class ReviewService {
             if ((helpful && vote.getVoteType() == ReviewVote.VoteType.HELPFUL) ||
                     (!helpful && vote.getVoteType() == ReviewVote.VoteType.UNHELPFUL)) {
                 reviewVoteRepository.delete(vote);
+                helpfulDelta = helpful ? -1 : 0;
+                unhelpfulDelta = helpful ? 0 : -1;
             } else {
                 // Update vote type
                 vote.setVoteType(helpful ? ReviewVote.VoteType.HELPFUL : ReviewVote.VoteType.UNHELPFUL);
                 reviewVoteRepository.save(vote);
+                helpfulDelta = helpful ? 1 : -1;
+                unhelpfulDelta = -helpfulDelta;
             }
         } else {
             // Create new vote
@@ -189,17 +261,22 @@ public class ReviewService {
             vote.setVoteType(helpful ? ReviewVote.VoteType.HELPFUL : ReviewVote.VoteType.UNHELPFUL);
             vote.setCreatedAt(LocalDateTime.now());
             reviewVoteRepository.save(vote);
+            helpfulDelta = helpful ? 1 : 0;
+            unhelpfulDelta = helpful ? 0 : 1;
         }
 
-        return convertToDTO(review, userId);
+        // Counters move in the same transaction as the vote row, as one atomic UPDATE
+        reviewRepository.adjustVoteCounts(reviewId, helpfulDelta, unhelpfulDelta);
+        Review updatedReview = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Review not found"));
+
+        return convertToDTO(updatedReview, userId);
     }
 
     // Get user's reviews
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getUserReviews(Long userId) {
-        List<Review> reviews = reviewRepository.findByUserId(userId);
-        return reviews.stream()
-                .map(review -> convertToDTO(review, userId))
-                .collect(Collectors.toList());
+        return convertToDTOs(reviewRepository.findAllWithDetailsByUserId(userId), userId);
     }
 
     // Check if user can review a product
@@ -214,6 +291,59 @@ public class ReviewService {
         );
     }
 
+    // ============= REVIEW CURSORS =============
+    // Opaque to clients: base64url of "<sort key>|<id>" for the last review of a page
+
+    private String encodeCursor(ReviewSort sort, Review last) {
+        Object key = switch (sort) {
+            case NEWEST, OLDEST -> last.getCreatedAt();
+            case HELPFUL -> last.getHelpfulVotes() != null ? last.getHelpfulVotes() : 0;
+            case RATING_HIGH, RATING_LOW -> last.getRating();
+        };
+        String raw = key + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private Long parseCursorId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private Integer parseCursorInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private LocalDateTime parseCursorDate(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     // Helper method to update product rating statistics
     private void updateProductRatingStats(Long productId) {
         // In a real application, you might want to cache these statistics
@@ -221,8 +351,32 @@ public class ReviewService {
         log.info("Updated rating stats for product: {}", productId);
     }
 
-    // Convert Review entity to DTO with vote counts
     private ReviewDTO convertToDTO(Review review, Long currentUserId) {
+        return convertToDTOs(List.of(review), currentUserId).get(0);
+    }
+
+    // Convert reviews to DTOs; vote counts are the review's own counters and the current user's
+    // votes for the whole batch are read with one query
+    private List<ReviewDTO> convertToDTOs(List<Review> reviews, Long currentUserId) {
+        if (reviews.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> reviewIds = reviews.stream().map(Review::getId).collect(Collectors.toList());
+
+        // [reviewId, voteType]
+        Map<Long, Boolean> userVotes = new HashMap<>();
+        if (currentUserId != null) {
+            for (Object[] row : reviewVoteRepository.findUserVotes(currentUserId, reviewIds)) {
+                userVotes.put((Long) row[0], row[1] == ReviewVote.VoteType.HELPFUL);
+            }
+        }
+
+        return reviews.stream()
+                .map(review -> buildDTO(review, userVotes.get(review.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private ReviewDTO buildDTO(Review review, Boolean currentUserVote) {
         ReviewDTO dto = new ReviewDTO();
         dto.setId(review.getId());
         dto.setProductId(review.getProduct().getId());
@@ -235,19 +389,9 @@ public class ReviewService {
         dto.setComment(review.getComment());
         dto.setCreatedAt(review.getCreatedAt());
 
-        // Get vote counts
-        Long helpfulCount = reviewVoteRepository.countHelpfulVotes(review.getId());
-        Long unhelpfulCount = reviewVoteRepository.countUnhelpfulVotes(review.getId());
-        dto.setHelpfulCount(helpfulCount != null ? helpfulCount.intValue() : 0);
-        dto.setUnhelpfulCount(unhelpfulCount != null ? unhelpfulCount.intValue() : 0);
-
-        // Get current user's vote if logged in
-        if (currentUserId != null) {
-            Optional<ReviewVote> userVote = reviewVoteRepository.findByUserIdAndReviewId(currentUserId, review.getId());
-            if (userVote.isPresent()) {
-                dto.setCurrentUserVote(userVote.get().getVoteType() == ReviewVote.VoteType.HELPFUL);
-            }
-        }
+        dto.setHelpfulCount(review.getHelpfulVotes() != null ? review.getHelpfulVotes() : 0);
+        dto.setUnhelpfulCount(review.getUnhelpfulVotes() != null ? review.getUnhelpfulVotes() : 0);
+        dto.setCurrentUserVote(currentUserVote);
 
         return dto;
     }
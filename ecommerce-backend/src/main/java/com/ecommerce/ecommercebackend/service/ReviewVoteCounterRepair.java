@@ -0,0 +1,91 @@
+package com.ecommerce.ecommercebackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes the helpful/unhelpful counters on reviews from review_votes and rewrites the ones
+ * that differ. Votes keep the counters current on their own; this fills them in for reviews that
+ * predate them and corrects drift from votes written or deleted outside ReviewService. Reviews are
+ * walked in id ranges, one statement each, so no single statement locks the whole table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewVoteCounterRepair {
+
+    private static final String REPAIR_SQL =
+            "UPDATE reviews r " +
+            "LEFT JOIN (SELECT review_id, " +
+            "  SUM(CASE WHEN vote_type = 'HELPFUL' THEN 1 ELSE 0 END) AS helpful, " +
+            "  SUM(CASE WHEN vote_type = 'UNHELPFUL' THEN 1 ELSE 0 END) AS unhelpful " +
+            "  FROM review_votes WHERE review_id BETWEEN ? AND ? GROUP BY review_id) v ON v.review_id = r.id " +
+            "SET r.helpful_votes = COALESCE(v.helpful, 0), r.unhelpful_votes = COALESCE(v.unhelpful, 0) " +
+            "WHERE r.id BETWEEN ? AND ? AND (" +
+            "  r.helpful_votes IS NULL OR r.unhelpful_votes IS NULL OR " +
+            "  r.helpful_votes <> COALESCE(v.helpful, 0) OR r.unhelpful_votes <> COALESCE(v.unhelpful, 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reviews.vote-repair.enabled:true}")
+    private boolean enabled;
+
+    // Review ids per UPDATE statement
+    @Value("${app.reviews.vote-repair.chunk-size:5000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (enabled) {
+            repair();
+        }
+    }
+
+    @Scheduled(cron = "${app.reviews.vote-repair.cron:0 45 3 * * *}")
+    public void scheduledRepair() {
+        if (enabled) {
+            repair();
+        }
+    }
+
+    // Returns the number of reviews whose counters were corrected
+    public int repair() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Review vote counter repair already in progress, skipping");
+            return 0;
+        }
+        long startedAt = System.currentTimeMillis();
+        int corrected = 0;
+        try {
+            Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM reviews");
+            if (bounds.get("min_id") == null) {
+                return 0;
+            }
+            long minId = ((Number) bounds.get("min_id")).longValue();
+            long maxId = ((Number) bounds.get("max_id")).longValue();
+
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long to = from + chunkSize - 1;
+                corrected += jdbcTemplate.update(REPAIR_SQL, from, to, from, to);
+            }
+            log.info("Review vote counters repaired: {} reviews corrected in {} ms",
+                    corrected, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("Review vote counter repair failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+        return corrected;
+    }
+}
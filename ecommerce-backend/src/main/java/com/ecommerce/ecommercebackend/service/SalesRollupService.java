@@ -0,0 +1,145 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.repository.DailySalesRollupRepository;
+import com.ecommerce.ecommercebackend.repository.OrderItemRepository;
+import com.ecommerce.ecommercebackend.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps daily_sales_rollup in step with orders. Every change runs inside the caller's transaction,
+ * so the rollup commits or rolls back together with the order it describes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SalesRollupService {
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
+
+    public void recordOrderCreated(Order order, long itemsSold) {
+        applyDelta(salesDate(order), order.getStatus(), 1, amount(order), itemsSold);
+    }
+
+    public void recordStatusChange(Order order, Order.OrderStatus previousStatus) {
+        if (previousStatus == null || previousStatus == order.getStatus()) {
+            return;
+        }
+        long itemsSold = itemsSold(List.of(order.getId())).getOrDefault(order.getId(), 0L);
+        moveBucket(order, previousStatus, itemsSold);
+    }
+
+    // Bulk variant: one items query for all orders, one upsert per affected (date, status) bucket
+    public void recordStatusChanges(Collection<Order> orders, Map<Long, Order.OrderStatus> previousStatuses) {
+        List<Long> changedIds = orders.stream()
+                .filter(order -> previousStatuses.get(order.getId()) != null
+                        && previousStatuses.get(order.getId()) != order.getStatus())
+                .map(Order::getId)
+                .toList();
+        if (changedIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> itemsByOrder = itemsSold(changedIds);
+        Map<Bucket, Delta> deltas = new HashMap<>();
+        for (Order order : orders) {
+            Order.OrderStatus previous = previousStatuses.get(order.getId());
+            if (previous == null || previous == order.getStatus()) {
+                continue;
+            }
+            LocalDate date = salesDate(order);
+            BigDecimal amount = amount(order);
+            long items = itemsByOrder.getOrDefault(order.getId(), 0L);
+            deltas.computeIfAbsent(new Bucket(date, previous), k -> new Delta()).add(-1, amount.negate(), -items);
+            deltas.computeIfAbsent(new Bucket(date, order.getStatus()), k -> new Delta()).add(1, amount, items);
+        }
+
+        deltas.forEach((bucket, delta) ->
+                applyDelta(bucket.date(), bucket.status(), delta.orders, delta.revenue, delta.items));
+    }
+
+    /**
+     * Rebuilds the whole rollup from orders and order_items. Used to backfill history
+     * and to repair drift; runs in one transaction so readers never see a half-built table.
+     */
+    public int rebuild() {
+        long startedAt = System.currentTimeMillis();
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.rebuildFromOrders();
+        log.info("Daily sales rollup rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - startedAt);
+        return rows;
+    }
+
+    // Backfill on first start after the table is introduced
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (rollupRepository.count() == 0 && orderRepository.count() > 0) {
+                log.info("Daily sales rollup is empty, backfilling from order history");
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill daily sales rollup: {}", e.getMessage(), e);
+        }
+    }
+
+    // ============= HELPERS =============
+
+    private void moveBucket(Order order, Order.OrderStatus previousStatus, long itemsSold) {
+        LocalDate date = salesDate(order);
+        BigDecimal amount = amount(order);
+        applyDelta(date, previousStatus, -1, amount.negate(), -itemsSold);
+        applyDelta(date, order.getStatus(), 1, amount, itemsSold);
+    }
+
+    private void applyDelta(LocalDate date, Order.OrderStatus status, long orders, BigDecimal revenue, long items) {
+        rollupRepository.applyDelta(date, status.name(), orders, revenue, items);
+    }
+
+    private Map<Long, Long> itemsSold(List<Long> orderIds) {
+        Map<Long, Long> items = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantityByOrderIds(orderIds)) {
+            items.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return items;
+    }
+
+    private LocalDate salesDate(Order order) {
+        return order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+
+    private BigDecimal amount(Order order) {
+        return Objects.requireNonNullElse(order.getTotalAmount(), BigDecimal.ZERO);
+    }
+
+    private record Bucket(LocalDate date, Order.OrderStatus status) {
+    }
+
+    private static final class Delta {
+        private long orders;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long items;
+
+        void add(long orders, BigDecimal revenue, long items) {
+            this.orders += orders;
+            this.revenue = this.revenue.add(revenue);
+            this.items += items;
+        }
+    }
+}
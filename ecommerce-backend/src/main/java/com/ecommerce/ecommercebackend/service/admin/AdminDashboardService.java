@@ -1,28 +1,41 @@
 package com.ecommerce.ecommercebackend.service.admin;
 
 import com.ecommerce.ecommercebackend.dto.admin.DashboardStatsDTO;
+import com.ecommerce.ecommercebackend.entity.DailySalesRollup;
 import com.ecommerce.ecommercebackend.entity.Order;
-import com.ecommerce.ecommercebackend.entity.Product;
 import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.DailySalesRollupRepository;
 import com.ecommerce.ecommercebackend.repository.OrderRepository;
 import com.ecommerce.ecommercebackend.repository.ProductRepository;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.ecommerce.ecommercebackend.service.PopularProductsTracker;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class AdminDashboardService {
@@ -30,59 +43,91 @@ public class AdminDashboardService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final DailySalesRollupRepository rollupRepository;
+    private final PopularProductsTracker popularProductsTracker;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final Executor queryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // A section slower than this is left out of the response instead of holding up the rest
+    private final long sectionTimeoutMs;
+
+    public AdminDashboardService(OrderRepository orderRepository,
+                                 ProductRepository productRepository,
+                                 UserRepository userRepository,
+                                 DailySalesRollupRepository rollupRepository,
+                                 PopularProductsTracker popularProductsTracker,
+                                 InventoryAnalyticsService inventoryAnalyticsService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("dashboardQueryExecutor") Executor queryExecutor,
+                                 @Value("${app.dashboard.section-timeout-ms:5000}") long sectionTimeoutMs) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.rollupRepository = rollupRepository;
+        this.popularProductsTracker = popularProductsTracker;
+        this.inventoryAnalyticsService = inventoryAnalyticsService;
+        this.queryExecutor = queryExecutor;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+
+        // Each section gets its own short read-only transaction; the statement timeout
+        // stops a query that has already been given up on from running on
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs) + 1));
+    }
 
+    /**
+     * Runs the independent dashboard queries concurrently, so latency is that of the slowest
+     * section rather than the sum. Sections that fail or time out are listed in degradedSections
+     * and their fields left null; per-section timings are returned in sectionTimings.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardStatsDTO getDashboardStats() {
         DashboardStatsDTO stats = new DashboardStatsDTO();
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        List<String> degraded = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Long> totalProducts = section("totalProducts",
+                productRepository::count, timings, degraded);
+        CompletableFuture<Long> totalCustomers = section("totalCustomers",
+                () -> userRepository.countByRole(User.Role.CUSTOMER), timings, degraded);
+        // Order counts and revenue - one grouped query, a handful of rows
+        CompletableFuture<List<Object[]>> statusSummary = section("orderSummary",
+                orderRepository::getStatusSummary, timings, degraded);
+        CompletableFuture<List<DashboardStatsDTO.RecentOrderDTO>> recentOrders = section("recentOrders",
+                this::getRecentOrders, timings, degraded);
+        CompletableFuture<List<DashboardStatsDTO.PopularProductDTO>> popularProducts = section("popularProducts",
+                () -> getPopularProducts(10), timings, degraded);
+
+        // Sections never complete exceptionally, see section()
+        CompletableFuture.allOf(totalProducts, totalCustomers, statusSummary, recentOrders, popularProducts).join();
+
+        stats.setTotalProducts(totalProducts.join());
+        stats.setTotalCustomers(totalCustomers.join());
+        if (statusSummary.join() != null) {
+            applyStatusSummary(stats, statusSummary.join());
+        }
+        stats.setRecentOrders(recentOrders.join());
+        stats.setPopularProducts(popularProducts.join());
 
-        // Basic counts
-        stats.setTotalOrders(orderRepository.count());
-        stats.setTotalProducts(productRepository.count());
-        stats.setTotalCustomers(userRepository.countByRole(User.Role.CUSTOMER));
-
-        // Revenue calculations
-        List<Order> deliveredOrders = orderRepository.findByStatus(Order.OrderStatus.DELIVERED);
-        BigDecimal totalRevenue = deliveredOrders.stream()
-                .map(Order::getTotalAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.setTotalRevenue(totalRevenue);
-
-        BigDecimal averageOrderValue = deliveredOrders.isEmpty() ? BigDecimal.ZERO :
-                totalRevenue.divide(BigDecimal.valueOf(deliveredOrders.size()), 2, RoundingMode.HALF_UP);
-        stats.setAverageOrderValue(averageOrderValue);
-
-        // Order status counts
-        stats.setPendingOrders(orderRepository.countByStatus(Order.OrderStatus.PENDING));
-        stats.setProcessingOrders(orderRepository.countByStatus(Order.OrderStatus.PROCESSING));
-        stats.setShippedOrders(orderRepository.countByStatus(Order.OrderStatus.SHIPPED));
-        stats.setDeliveredOrders(orderRepository.countByStatus(Order.OrderStatus.DELIVERED));
-        stats.setCancelledOrders(orderRepository.countByStatus(Order.OrderStatus.CANCELLED));
-
-        // Recent orders
-        stats.setRecentOrders(getRecentOrders());
-
-        // Popular products
-        stats.setPopularProducts(getPopularProducts());
-
-        // Orders by status for pie chart
-        stats.setOrdersByStatus(getOrdersByStatus());
-
+        stats.setSectionTimings(new TreeMap<>(timings));
+        stats.setDegradedSections(new ArrayList<>(degraded));
+        if (!degraded.isEmpty()) {
+            log.warn("Dashboard stats served without sections: {}", degraded);
+        }
         return stats;
     }
 
+    // Served from daily_sales_rollup: one row per day regardless of order volume
     public Map<String, BigDecimal> getSalesChartData(LocalDateTime start, LocalDateTime end) {
-        List<Order> orders = orderRepository.findByCreatedAtBetweenAndStatus(
-                start, end, Order.OrderStatus.DELIVERED);
+        List<DailySalesRollup> rows = rollupRepository.findByStatusAndSalesDateBetweenOrderBySalesDate(
+                Order.OrderStatus.DELIVERED, start.toLocalDate(), end.toLocalDate());
 
         Map<String, BigDecimal> dailySales = new TreeMap<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-        orders.forEach(order -> {
-            if (order.getCreatedAt() != null && order.getTotalAmount() != null) {
-                String day = order.getCreatedAt().format(formatter);
-                dailySales.merge(day, order.getTotalAmount(), BigDecimal::add);
-            }
-        });
+        rows.forEach(row -> dailySales.merge(row.getSalesDate().format(formatter), row.getRevenue(), BigDecimal::add));
 
         return dailySales;
     }
@@ -90,62 +135,102 @@ public class AdminDashboardService {
     public Map<String, Object> getSalesReport(LocalDateTime start, LocalDateTime end, String interval) {
         Map<String, Object> report = new HashMap<>();
 
-        List<Order> orders = orderRepository.findByCreatedAtBetween(start, end);
+        // [salesDate, orderCount, revenue, itemsSold] per day, all statuses
+        List<Object[]> dailyRows = rollupRepository.sumByDate(start.toLocalDate(), end.toLocalDate());
 
-        report.put("totalOrders", orders.size());
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (Object[] row : dailyRows) {
+            totalOrders += ((Number) row[1]).longValue();
+            totalRevenue = totalRevenue.add(toBigDecimal(row[2]));
+        }
 
-        BigDecimal totalRevenue = orders.stream()
-                .map(Order::getTotalAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        report.put("totalOrders", totalOrders);
         report.put("totalRevenue", totalRevenue);
 
-        double averageOrderValue = orders.stream()
-                .mapToDouble(o -> o.getTotalAmount() != null ? o.getTotalAmount().doubleValue() : 0.0)
-                .average()
-                .orElse(0.0);
+        double averageOrderValue = totalOrders == 0 ? 0.0 :
+                totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP).doubleValue();
         report.put("averageOrderValue", averageOrderValue);
 
         // Group by interval (daily/weekly/monthly)
-        Map<String, Object> groupedData = groupOrdersByInterval(orders, interval);
+        Map<String, Object> groupedData = groupRollupByInterval(dailyRows, interval);
         report.put("groupedData", groupedData);
 
         return report;
     }
 
     public List<DashboardStatsDTO.PopularProductDTO> getTopProducts(int limit) {
-        return getPopularProducts().stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return getPopularProducts(limit);
     }
 
     public Map<String, Object> getInventoryReport() {
-        Map<String, Object> report = new HashMap<>();
+        return inventoryAnalyticsService.getInventoryReport();
+    }
 
-        List<Product> allProducts = productRepository.findAll();
+    // Helper methods
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal;
+        }
+        return new BigDecimal(value.toString());
+    }
 
-        report.put("totalProducts", allProducts.size());
+    private <T> CompletableFuture<T> section(String name, Supplier<T> query,
+                                             Map<String, Long> timings, List<String> degraded) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), queryExecutor)
+                    .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((result, error) -> {
+            timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            if (error != null) {
+                log.warn("Dashboard section {} failed: {}", name, error.toString());
+                degraded.add(name);
+                return null;
+            }
+            return result;
+        });
+    }
 
-        BigDecimal totalStockValue = allProducts.stream()
-                .map(p -> p.getPrice() != null && p.getStockQuantity() != null ?
-                        p.getPrice().multiply(BigDecimal.valueOf(p.getStockQuantity())) : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        report.put("totalStockValue", totalStockValue);
+    private void applyStatusSummary(DashboardStatsDTO stats, List<Object[]> rows) {
+        Map<Order.OrderStatus, Long> countsByStatus = new EnumMap<>(Order.OrderStatus.class);
+        Map<Order.OrderStatus, BigDecimal> revenueByStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (Object[] row : rows) {
+            Order.OrderStatus status = (Order.OrderStatus) row[0];
+            countsByStatus.put(status, (Long) row[1]);
+            revenueByStatus.put(status, toBigDecimal(row[2]));
+        }
 
-        long lowStockCount = allProducts.stream()
-                .filter(p -> p.getStockQuantity() != null && p.getStockQuantity() > 0 && p.getStockQuantity() <= 10)
-                .count();
-        report.put("lowStockCount", lowStockCount);
+        stats.setTotalOrders(countsByStatus.values().stream().mapToLong(Long::longValue).sum());
 
-        long outOfStockCount = allProducts.stream()
-                .filter(p -> p.getStockQuantity() == null || p.getStockQuantity() == 0)
-                .count();
-        report.put("outOfStockCount", outOfStockCount);
+        long deliveredCount = countsByStatus.getOrDefault(Order.OrderStatus.DELIVERED, 0L);
+        BigDecimal totalRevenue = revenueByStatus.getOrDefault(Order.OrderStatus.DELIVERED, BigDecimal.ZERO);
+        stats.setTotalRevenue(totalRevenue);
 
-        return report;
+        BigDecimal averageOrderValue = deliveredCount == 0 ? BigDecimal.ZERO :
+                totalRevenue.divide(BigDecimal.valueOf(deliveredCount), 2, RoundingMode.HALF_UP);
+        stats.setAverageOrderValue(averageOrderValue);
+
+        // Order status counts
+        stats.setPendingOrders(countsByStatus.getOrDefault(Order.OrderStatus.PENDING, 0L));
+        stats.setProcessingOrders(countsByStatus.getOrDefault(Order.OrderStatus.PROCESSING, 0L));
+        stats.setShippedOrders(countsByStatus.getOrDefault(Order.OrderStatus.SHIPPED, 0L));
+        stats.setDeliveredOrders(deliveredCount);
+        stats.setCancelledOrders(countsByStatus.getOrDefault(Order.OrderStatus.CANCELLED, 0L));
+
+        // Orders by status for pie chart (same rows, no extra query)
+        Map<String, Long> ordersByStatus = new HashMap<>();
+        countsByStatus.forEach((status, count) -> ordersByStatus.put(status.toString(), count));
+        stats.setOrdersByStatus(ordersByStatus);
     }
 
-    // Helper methods
     private List<DashboardStatsDTO.RecentOrderDTO> getRecentOrders() {
         Pageable pageable = PageRequest.of(0, 10);
         List<Order> recentOrders = orderRepository.findTop10ByOrderByCreatedAtDesc(pageable);
@@ -179,96 +264,35 @@ public class AdminDashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<DashboardStatsDTO.PopularProductDTO> getPopularProducts() {
-        try {
-            // Try to get from repository query first
-            List<Object[]> popularProductsData = orderRepository.findTop10PopularProducts();
-
-            if (popularProductsData != null && !popularProductsData.isEmpty()) {
-                return popularProductsData.stream()
-                        .map(data -> {
-                            DashboardStatsDTO.PopularProductDTO dto = new DashboardStatsDTO.PopularProductDTO();
-                            dto.setId((Long) data[0]);
-                            dto.setName((String) data[1]);
-                            dto.setImageUrl((String) data[2]);
-                            dto.setTotalSold((Long) data[3]);
-                            dto.setRevenue((BigDecimal) data[4]);
-
-                            // Get current stock from product repository
-                            productRepository.findById(dto.getId()).ifPresent(product ->
-                                    dto.setStockQuantity(product.getStockQuantity())
-                            );
-
-                            return dto;
-                        })
-                        .collect(Collectors.toList());
-            }
-        } catch (Exception e) {
-            log.warn("Could not fetch popular products from repository, falling back to manual calculation: {}", e.getMessage());
+    // Served from the in-memory leaderboard; current stock joined with one batch query
+    private List<DashboardStatsDTO.PopularProductDTO> getPopularProducts(int limit) {
+        List<PopularProductsTracker.Entry> leaders = popularProductsTracker.top(limit);
+        if (leaders.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        // Fallback: manual calculation
-        return productRepository.findAll().stream()
-                .map(product -> {
-                    DashboardStatsDTO.PopularProductDTO dto = new DashboardStatsDTO.PopularProductDTO();
-                    dto.setId(product.getId());
-                    dto.setName(product.getName());
-                    dto.setImageUrl(product.getImageUrl());
-                    dto.setStockQuantity(product.getStockQuantity());
-
-                    // Calculate total sold from order items
-                    long totalSold = 0L;
-                    BigDecimal revenue = BigDecimal.ZERO;
-
-                    if (product.getOrderItems() != null && !product.getOrderItems().isEmpty()) {
-                        totalSold = product.getOrderItems().stream()
-                                .mapToLong(item -> item.getQuantity() != null ? item.getQuantity() : 0L)
-                                .sum();
-
-                        revenue = product.getOrderItems().stream()
-                                .map(item -> item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    }
-
-                    dto.setTotalSold(totalSold);
-                    dto.setRevenue(revenue);
+        // [productId, stockQuantity]
+        Map<Long, Integer> stockById = new HashMap<>();
+        List<Long> ids = leaders.stream().map(PopularProductsTracker.Entry::getProductId).toList();
+        for (Object[] row : productRepository.findStockByIds(ids)) {
+            stockById.put((Long) row[0], (Integer) row[1]);
+        }
 
+        return leaders.stream()
+                .map(entry -> {
+                    DashboardStatsDTO.PopularProductDTO dto = new DashboardStatsDTO.PopularProductDTO();
+                    dto.setId(entry.getProductId());
+                    dto.setName(entry.getName());
+                    dto.setImageUrl(entry.getImageUrl());
+                    dto.setTotalSold(entry.getUnits());
+                    dto.setRevenue(entry.getRevenue());
+                    dto.setStockQuantity(stockById.get(entry.getProductId()));
                     return dto;
                 })
-                .sorted((a, b) -> Long.compare(b.getTotalSold(), a.getTotalSold()))
-                .limit(10)
                 .collect(Collectors.toList());
     }
 
-    private Map<String, Long> getOrdersByStatus() {
-        Map<String, Long> statusCounts = new HashMap<>();
-        List<Object[]> results = orderRepository.countByStatus();
-
-        if (results != null) {
-            for (Object[] result : results) {
-                if (result.length >= 2) {
-                    Order.OrderStatus status = (Order.OrderStatus) result[0];
-                    Long count = (Long) result[1];
-                    statusCounts.put(status.toString(), count);
-                }
-            }
-        } else {
-            // Fallback: manual counting
-            for (Order.OrderStatus status : Order.OrderStatus.values()) {
-                long count = orderRepository.countByStatus(status);
-                if (count > 0) {
-                    statusCounts.put(status.toString(), count);
-                }
-            }
-        }
-
-        return statusCounts;
-    }
-
-    private Map<String, Object> groupOrdersByInterval(List<Order> orders, String interval) {
-        Map<String, Object> grouped = new TreeMap<>();
-        Map<String, List<Order>> groupedOrders = new TreeMap<>();
-
+    private Map<String, Object> groupRollupByInterval(List<Object[]> dailyRows, String interval) {
         DateTimeFormatter formatter;
         switch (interval.toLowerCase()) {
             case "daily":
@@ -284,28 +308,25 @@ public class AdminDashboardService {
                 formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         }
 
-        orders.forEach(order -> {
-            if (order.getCreatedAt() != null) {
-                String key = order.getCreatedAt().format(formatter);
-                groupedOrders.computeIfAbsent(key, k -> new ArrayList<>()).add(order);
-            }
-        });
-
         // Transform to summary data
-        Map<String, Object> summary = new HashMap<>();
-        groupedOrders.forEach((key, orderList) -> {
-            Map<String, Object> periodData = new HashMap<>();
-            periodData.put("count", orderList.size());
-
-            BigDecimal revenue = orderList.stream()
-                    .map(Order::getTotalAmount)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            periodData.put("revenue", revenue);
-
-            summary.put(key, periodData);
-        });
+        Map<String, Object> summary = new TreeMap<>();
+        for (Object[] row : dailyRows) {
+            String key = ((LocalDate) row[0]).format(formatter);
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> periodData = (Map<String, Object>) summary.computeIfAbsent(key, k -> {
+                Map<String, Object> data = new HashMap<>();
+                data.put("count", 0L);
+                data.put("revenue", BigDecimal.ZERO);
+                data.put("itemsSold", 0L);
+                return data;
+            });
+
+            periodData.put("count", (Long) periodData.get("count") + ((Number) row[1]).longValue());
+            periodData.put("revenue", ((BigDecimal) periodData.get("revenue")).add(toBigDecimal(row[2])));
+            periodData.put("itemsSold", (Long) periodData.get("itemsSold") + ((Number) row[3]).longValue());
+        }
 
         return summary;
     }
-}
\ No newline at end of file
+}
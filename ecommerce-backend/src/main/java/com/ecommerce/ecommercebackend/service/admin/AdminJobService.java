@@ -0,0 +1,411 @@
+package com.ecommerce.ecommercebackend.service.admin;
+
+import com.ecommerce.ecommercebackend.dto.admin.AdminJobDTO;
+import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateDTO;
+import com.ecommerce.ecommercebackend.entity.AdminJob;
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
+import com.ecommerce.ecommercebackend.repository.AdminJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs admin bulk operations in the background. Submitting persists the job and returns at once;
+ * a bounded executor then works through the ids in chunks, each chunk in its own short transaction
+ * that also advances the job's progress counters. Jobs that were queued or running when the
+ * application stopped are picked up again on startup and continue from their last committed chunk.
+ * With several instances, a job belongs to the one holding its lease (claimed with a conditional
+ * UPDATE, renewed before every chunk); the others only take it over once the lease has expired.
+ */
+@Service
+@Slf4j
+public class AdminJobService {
+
+    private final AdminJobRepository jobRepository;
+    private final AdminOrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor jobExecutor;
+
+    private final Map<AdminJob.JobType, ChunkHandler> handlers = new EnumMap<>(AdminJob.JobType.class);
+    // Jobs handed to the executor by this instance
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+    // Lease owner name for this instance
+    private final String instanceId;
+
+    @Value("${app.jobs.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.jobs.retention-days:30}")
+    private int retentionDays;
+
+    // Must comfortably exceed the time one chunk takes, or another instance may take the job over mid-chunk
+    @Value("${app.jobs.lease-ms:300000}")
+    private long leaseMs;
+
+    public AdminJobService(AdminJobRepository jobRepository,
+                           AdminProductService productService,
+                           ProductBulkMutationService productBulkMutationService,
+                           AdminOrderService orderService,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("adminJobExecutor") Executor jobExecutor,
+                           @Value("${app.jobs.instance-id:}") String instanceId) {
+        this.jobRepository = jobRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobExecutor = jobExecutor;
+        this.instanceId = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+
+        handlers.put(AdminJob.JobType.PRODUCT_BULK_DELETE,
+                (ids, params) -> productService.bulkDeleteProducts(ids));
+        handlers.put(AdminJob.JobType.PRODUCT_BULK_UPDATE, (ids, params) -> {
+            ProductBulkUpdateDTO update = objectMapper.convertValue(params, ProductBulkUpdateDTO.class);
+            update.setProductIds(ids);
+            return productBulkMutationService.apply(update).getMatched();
+        });
+        handlers.put(AdminJob.JobType.ORDER_BULK_STATUS,
+                (ids, params) -> orderService.updateOrderStatuses(ids,
+                        Order.OrderStatus.valueOf(String.valueOf(params.get("status")))));
+    }
+
+    // ============= SUBMIT =============
+
+    public AdminJobDTO submitProductDelete(List<Long> productIds) {
+        return submit(AdminJob.JobType.PRODUCT_BULK_DELETE, productIds, Map.of());
+    }
+
+    public AdminJobDTO submitProductUpdate(ProductBulkUpdateDTO update) {
+        if (update.getDiscountPrice() == null && update.getStockAdjustment() == null && update.getIsActive() == null) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        if (update.getDiscountPrice() != null && update.getDiscountPrice().signum() < 0) {
+            throw new IllegalArgumentException("Discount price cannot be negative");
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("discountPrice", update.getDiscountPrice());
+        params.put("stockAdjustment", update.getStockAdjustment());
+        params.put("isActive", update.getIsActive());
+        return submit(AdminJob.JobType.PRODUCT_BULK_UPDATE, update.getProductIds(), params);
+    }
+
+    public AdminJobDTO submitOrderStatusUpdate(List<Long> orderIds, String status) {
+        Order.OrderStatus newStatus = orderService.parseStatus(status);
+        return submit(AdminJob.JobType.ORDER_BULK_STATUS, orderIds, Map.of("status", newStatus.name()));
+    }
+
+    // ============= QUERY / CANCEL =============
+
+    public AdminJobDTO getJob(Long id) {
+        return convertToDTO(findJob(id));
+    }
+
+    public Page<AdminJobDTO> getJobs(AdminJob.JobStatus status, Pageable pageable) {
+        Page<AdminJob> jobs = status != null
+                ? jobRepository.findByStatusOrderByCreatedAtDesc(status, pageable)
+                : jobRepository.findAllByOrderByCreatedAtDesc(pageable);
+        return jobs.map(this::convertToDTO);
+    }
+
+    /**
+     * Asks a job to stop. A running job stops before its next chunk; chunks already committed stay
+     * applied. A job that never started is cancelled straight away.
+     */
+    public AdminJobDTO cancelJob(Long id) {
+        AdminJob job = findJob(id);
+        if (job.isFinished()) {
+            throw new IllegalStateException("Job " + id + " has already finished with status " + job.getStatus());
+        }
+        transactionTemplate.executeWithoutResult(status -> jobRepository.requestCancel(id, LocalDateTime.now()));
+        if (job.getStatus() == AdminJob.JobStatus.QUEUED && job.getLockedBy() == null && !dispatched.contains(id)) {
+            finish(id, AdminJob.JobStatus.CANCELLED, null);
+        }
+        log.info("Cancellation requested for admin job {}", id);
+        return getJob(id);
+    }
+
+    // ============= DISPATCH =============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        dispatchPending();
+    }
+
+    // Also covers jobs whose submit was rejected because the executor queue was full, and jobs whose
+    // owner stopped renewing its lease
+    @Scheduled(fixedDelayString = "${app.jobs.dispatch-ms:30000}", initialDelayString = "${app.jobs.dispatch-ms:30000}")
+    public void dispatchPending() {
+        try {
+            for (AdminJob job : jobRepository.findUnleased(
+                    List.of(AdminJob.JobStatus.QUEUED, AdminJob.JobStatus.RUNNING), LocalDateTime.now())) {
+                if (!dispatched.contains(job.getId())) {
+                    if (job.getStatus() == AdminJob.JobStatus.RUNNING) {
+                        log.info("Resuming admin job {} at item {} of {}", job.getId(),
+                                job.getProcessedItems(), job.getTotalItems());
+                    }
+                    dispatch(job.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to dispatch pending admin jobs: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.jobs.cleanup-cron:0 15 4 * * *}")
+    public void deleteOldJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> jobRepository.deleteFinishedBefore(cutoff));
+        log.info("Deleted {} admin jobs finished before {}", deleted, cutoff);
+    }
+
+    // ============= EXECUTION =============
+
+    private AdminJobDTO submit(AdminJob.JobType type, List<Long> ids, Map<String, Object> params) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No items selected");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.removeIf(Objects::isNull);
+
+        AdminJob job = new AdminJob();
+        job.setType(type);
+        job.setStatus(AdminJob.JobStatus.QUEUED);
+        job.setTargetIds(toJson(distinctIds));
+        job.setParameters(toJson(params));
+        job.setTotalItems(distinctIds.size());
+        job.setCreatedBy(currentUser());
+
+        // Committed before dispatch so the worker always finds the row
+        AdminJob saved = transactionTemplate.execute(status -> jobRepository.save(job));
+        dispatch(saved.getId());
+
+        log.info("Submitted admin job {} ({}, {} items)", saved.getId(), type, distinctIds.size());
+        return convertToDTO(saved);
+    }
+
+    private void dispatch(Long id) {
+        if (!dispatched.add(id)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    dispatched.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Stays QUEUED; the periodic dispatcher tries again
+            dispatched.remove(id);
+            log.warn("Admin job executor is full, job {} stays queued", id);
+        }
+    }
+
+    private void run(Long id) {
+        try {
+            AdminJob job = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                if (jobRepository.claim(id, instanceId, now.plus(Duration.ofMillis(leaseMs)), now) == 0) {
+                    // Finished, or another instance holds the lease
+                    return null;
+                }
+                AdminJob current = findJob(id);
+                if (current.isFinished()) {
+                    return null;
+                }
+                current.setStatus(AdminJob.JobStatus.RUNNING);
+                if (current.getStartedAt() == null) {
+                    current.setStartedAt(LocalDateTime.now());
+                }
+                return jobRepository.save(current);
+            });
+            if (job == null) {
+                return;
+            }
+
+            ChunkHandler handler = handlers.get(job.getType());
+            List<Long> ids = objectMapper.readValue(job.getTargetIds(), new TypeReference<List<Long>>() {});
+            Map<String, Object> params = job.getParameters() != null
+                    ? objectMapper.readValue(job.getParameters(), new TypeReference<Map<String, Object>>() {})
+                    : Map.of();
+
+            String lastError = null;
+            for (int from = job.getProcessedItems(); from < ids.size(); from += chunkSize) {
+                renewLease(id);
+                if (Boolean.TRUE.equals(jobRepository.isCancelRequested(id))) {
+                    finish(id, AdminJob.JobStatus.CANCELLED, null);
+                    log.info("Admin job {} cancelled after {} of {} items", id, from, ids.size());
+                    return;
+                }
+
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        int applied = Math.min(handler.process(chunk, params), chunk.size());
+                        jobRepository.recordProgress(id, chunk.size(), applied, chunk.size() - applied, LocalDateTime.now());
+                    });
+                } catch (Exception e) {
+                    // The chunk rolled back as a whole; redo it item by item so only the bad ones fail
+                    log.warn("Admin job {} chunk at item {} failed, retrying items individually: {}",
+                            id, from, e.getMessage());
+                    String itemError = processItems(id, chunk, handler, params);
+                    if (itemError != null) {
+                        lastError = itemError;
+                    }
+                }
+            }
+
+            AdminJob done = findJob(id);
+            boolean nothingApplied = done.getSucceededItems() == 0 && done.getFailedItems() > 0 && lastError != null;
+            finish(id, nothingApplied ? AdminJob.JobStatus.FAILED : AdminJob.JobStatus.COMPLETED, lastError);
+            log.info("Admin job {} finished: {} succeeded, {} failed", id, done.getSucceededItems(), done.getFailedItems());
+        } catch (LeaseLostException e) {
+            // The new owner carries on from the last committed chunk
+            log.warn("Admin job {} was taken over by another instance, stopping here", id);
+        } catch (Exception e) {
+            log.error("Admin job {} failed: {}", id, e.getMessage(), e);
+            finish(id, AdminJob.JobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    // Each item in its own transaction; returns the last error, or null if every item went through
+    private String processItems(Long id, List<Long> chunk, ChunkHandler handler, Map<String, Object> params) {
+        String lastError = null;
+        for (Long itemId : chunk) {
+            renewLease(id);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    int applied = Math.min(handler.process(List.of(itemId), params), 1);
+                    jobRepository.recordProgress(id, 1, applied, 1 - applied, LocalDateTime.now());
+                });
+            } catch (Exception e) {
+                lastError = "Item " + itemId + ": " + e.getMessage();
+                log.error("Admin job {} item {} failed: {}", id, itemId, e.getMessage());
+                transactionTemplate.executeWithoutResult(status ->
+                        jobRepository.recordProgress(id, 1, 0, 1, LocalDateTime.now()));
+            }
+        }
+        return lastError;
+    }
+
+    private void finish(Long id, AdminJob.JobStatus status, String errorMessage) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            AdminJob job = findJob(id);
+            job.setStatus(status);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setLeaseExpiresAt(null);
+            if (errorMessage != null) {
+                job.setErrorMessage(errorMessage.length() > 1000 ? errorMessage.substring(0, 1000) : errorMessage);
+            }
+            jobRepository.save(job);
+        });
+    }
+
+    // ============= HELPERS =============
+
+    private void renewLease(Long id) {
+        Integer renewed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return jobRepository.renewLease(id, instanceId, now.plus(Duration.ofMillis(leaseMs)), now);
+        });
+        if (renewed == null || renewed == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        // Suffixed so that two instances on one host never share a lease
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private AdminJob findJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found with id: " + id));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize job data", e);
+        }
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private AdminJobDTO convertToDTO(AdminJob job) {
+        AdminJobDTO dto = new AdminJobDTO();
+        dto.setId(job.getId());
+        dto.setType(job.getType().name());
+        dto.setStatus(job.getStatus().name());
+        dto.setTotalItems(job.getTotalItems());
+        dto.setProcessedItems(job.getProcessedItems());
+        dto.setSucceededItems(job.getSucceededItems());
+        dto.setFailedItems(job.getFailedItems());
+        dto.setPercentComplete(job.getTotalItems() > 0
+                ? (int) (100L * job.getProcessedItems() / job.getTotalItems())
+                : 100);
+        dto.setCancelRequested(job.getCancelRequested());
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCreatedBy(job.getCreatedBy());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            dto.setDurationMs(Duration.between(job.getStartedAt(), end).toMillis());
+        }
+        return dto;
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+    }
+
+    // Applies one chunk inside the caller's transaction and returns how many ids it changed
+    @FunctionalInterface
+    private interface ChunkHandler {
+        int process(List<Long> ids, Map<String, Object> params);
+    }
+}
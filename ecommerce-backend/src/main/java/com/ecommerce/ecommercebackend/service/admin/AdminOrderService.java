@@ -3,28 +3,35 @@ package com.ecommerce.ecommercebackend.service.admin;
 import com.ecommerce.ecommercebackend.dto.OrderDTO;
 import com.ecommerce.ecommercebackend.dto.OrderItemDTO;
 import com.ecommerce.ecommercebackend.dto.AddressDTO;
+import com.ecommerce.ecommercebackend.dto.admin.BulkOrderTransitionResultDTO;
 import com.ecommerce.ecommercebackend.dto.admin.OrderUpdateDTO;
 import com.ecommerce.ecommercebackend.entity.Order;
 import com.ecommerce.ecommercebackend.entity.OrderItem;
-import com.ecommerce.ecommercebackend.entity.Product;
 import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
 import com.ecommerce.ecommercebackend.repository.OrderRepository;
-import com.ecommerce.ecommercebackend.repository.OrderItemRepository;
-import com.ecommerce.ecommercebackend.repository.ProductRepository;
-import com.ecommerce.ecommercebackend.service.EmailService;
+import com.ecommerce.ecommercebackend.repository.OrderStatusHistoryRepository;
+import com.ecommerce.ecommercebackend.service.analytics.OrderAnalyticsEngine;
+import com.ecommerce.ecommercebackend.service.order.OrderStateMachine;
+import com.ecommerce.ecommercebackend.service.search.OrderSearchIndex;
+import com.ecommerce.ecommercebackend.service.search.SearchSort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,9 +41,11 @@ import java.util.stream.Collectors;
 public class AdminOrderService {
 
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
-    private final ProductRepository productRepository;
-    private final EmailService emailService;
+    private final OrderAnalyticsEngine orderAnalyticsEngine;
+    private final BulkOrderTransitionService bulkOrderTransitionService;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderStatusHistoryRepository statusHistoryRepository;
+    private final OrderSearchIndex orderSearchIndex;
 
     // ============= READ OPERATIONS =============
     @Transactional(readOnly = true)
@@ -50,10 +59,40 @@ public class AdminOrderService {
             }
         }
 
+        // The index serves newest/oldest-first pages; other sorts still go through the query
+        Sort.Direction indexDirection = SearchSort.idDirection(pageable.getSort());
+        if (search != null && !search.isBlank() && indexDirection != null && orderSearchIndex.isReady()) {
+            return searchOrders(search, orderStatus, pageable, indexDirection);
+        }
+
         Page<Order> orders = orderRepository.findOrdersWithFilters(orderStatus, search, pageable);
         return orders.map(this::convertToDTO);
     }
 
+    // The index resolves the full, newest-first id list; only the requested page is loaded
+    private Page<OrderDTO> searchOrders(String search, Order.OrderStatus status, Pageable pageable,
+                                        Sort.Direction direction) {
+        long[] ids = orderSearchIndex.search(search, status);
+        long[] page = SearchSort.page(ids, pageable.getOffset(), pageable.getPageSize(), direction);
+        if (page.length == 0) {
+            return new PageImpl<>(List.of(), pageable, ids.length);
+        }
+
+        List<Long> pageIds = new ArrayList<>(page.length);
+        for (long id : page) {
+            pageIds.add(id);
+        }
+        Map<Long, Order> byId = orderRepository.findAllWithUserByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+
+        List<OrderDTO> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
     @Transactional(readOnly = true)
     public OrderDTO getOrderDetails(Long id) {
         Order order = orderRepository.findByIdWithItems(id)
@@ -66,9 +105,7 @@ public class AdminOrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
 
-        Order.OrderStatus oldStatus = order.getStatus();
-        order.setStatus(updateDTO.getStatus());
-
+        // Tracking details first, so the shipping email carries them
         if (updateDTO.getTrackingNumber() != null) {
             order.setTrackingNumber(updateDTO.getTrackingNumber());
         }
@@ -79,52 +116,8 @@ public class AdminOrderService {
             order.setNotes(updateDTO.getNotes());
         }
 
-        // Handle status-specific logic
-        switch (updateDTO.getStatus()) {
-            case PROCESSING:
-                log.info("Order {} is now processing", order.getOrderNumber());
-                break;
-
-            case SHIPPED:
-                if (order.getShippedAt() == null) {
-                    order.setShippedAt(LocalDateTime.now());
-                }
-                // Send shipping notification email
-                try {
-                    emailService.sendOrderShippedEmail(convertToDTO(order), order.getTrackingNumber());
-                    log.info("Shipping email sent for order: {}", order.getOrderNumber());
-                } catch (Exception e) {
-                    log.error("Failed to send shipping email: {}", e.getMessage());
-                }
-                break;
-
-            case DELIVERED:
-                if (order.getDeliveredAt() == null) {
-                    order.setDeliveredAt(LocalDateTime.now());
-                }
-                // Send delivery confirmation email
-                try {
-                    emailService.sendOrderDeliveredEmail(convertToDTO(order));
-                    log.info("Delivery email sent for order: {}", order.getOrderNumber());
-                } catch (Exception e) {
-                    log.error("Failed to send delivery email: {}", e.getMessage());
-                }
-                break;
-
-            case CANCELLED:
-                if (order.getCancelledAt() == null) {
-                    order.setCancelledAt(LocalDateTime.now());
-                }
-                // Restore stock for cancelled orders
-                restoreStock(order);
-                log.info("Stock restored for cancelled order: {}", order.getOrderNumber());
-                break;
-
-            case REFUNDED:
-                order.setPaymentStatus(Order.PaymentStatus.REFUNDED);
-                break;
-        }
-
+        // Timestamps, payment status, stock, emails and history come with the transition
+        Order.OrderStatus oldStatus = orderStateMachine.transition(order, updateDTO.getStatus(), updateDTO.getNotes());
         Order updatedOrder = orderRepository.save(order);
         log.info("Order {} status updated from {} to {}",
                 order.getOrderNumber(), oldStatus, updateDTO.getStatus());
@@ -136,8 +129,8 @@ public class AdminOrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
 
+        orderStateMachine.transition(order, Order.OrderStatus.PROCESSING, "Payment processed");
         order.setPaymentStatus(Order.PaymentStatus.PAID);
-        order.setStatus(Order.OrderStatus.PROCESSING);
 
         Order updatedOrder = orderRepository.save(order);
         log.info("Payment processed for order: {}", order.getOrderNumber());
@@ -145,38 +138,27 @@ public class AdminOrderService {
         return convertToDTO(updatedOrder);
     }
 
-    public List<OrderDTO> bulkUpdateOrderStatus(List<Long> orderIds, String status) {
-        Order.OrderStatus newStatus;
-        try {
-            newStatus = Order.OrderStatus.valueOf(status.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid status: " + status);
-        }
-
-        List<Order> orders = orderRepository.findAllById(orderIds);
-        orders.forEach(order -> order.setStatus(newStatus));
-
-        List<Order> updatedOrders = orderRepository.saveAll(orders);
-        log.info("Bulk updated {} orders to status: {}", updatedOrders.size(), status);
+    public BulkOrderTransitionResultDTO bulkUpdateOrderStatus(List<Long> orderIds, String status) {
+        return bulkOrderTransitionService.transition(orderIds, parseStatus(status));
+    }
 
-        return updatedOrders.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Same as {@link #bulkUpdateOrderStatus} for callers that already have the status; used by
+     * background jobs, which call it once per chunk. Returns how many orders actually moved.
+     */
+    public int updateOrderStatuses(List<Long> orderIds, Order.OrderStatus newStatus) {
+        return bulkOrderTransitionService.transition(orderIds, newStatus).getTransitioned();
     }
 
-    // ============= HELPER METHODS =============
-    private void restoreStock(Order order) {
-        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-        for (OrderItem item : items) {
-            Product product = item.getProduct();
-            if (product != null) {
-                product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-                productRepository.save(product);
-                log.debug("Restored {} units of product {}", item.getQuantity(), product.getId());
-            }
+    public Order.OrderStatus parseStatus(String status) {
+        try {
+            return Order.OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid status: " + status);
         }
     }
 
+    // ============= HELPER METHODS =============
     private OrderDTO convertToDTO(Order order) {
         OrderDTO dto = new OrderDTO();
 
@@ -316,6 +298,10 @@ public class AdminOrderService {
 
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getOrdersByDateRange(LocalDateTime start, LocalDateTime end) {
+        if (orderAnalyticsEngine.isReady()) {
+            return orderAnalyticsEngine.getOrdersByDateRange(start, end);
+        }
+
         List<Order> orders = orderRepository.findByCreatedAtBetween(start, end);
         return orders.stream()
                 .map(order -> {
@@ -329,4 +315,51 @@ public class AdminOrderService {
                 })
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    // ============= STATUS HISTORY =============
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOrderStatusHistory(Long orderId) {
+        if (!orderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        return statusHistoryRepository.findByOrderIdOrderByCreatedAtAscIdAsc(orderId).stream()
+                .map(entry -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("fromStatus", entry.getFromStatus());
+                    map.put("status", entry.getStatus());
+                    map.put("notes", entry.getNotes());
+                    map.put("changedBy", entry.getCreatedBy());
+                    map.put("changedAt", entry.getCreatedAt());
+                    return map;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * How long orders stay in each status, from transitions recorded in the history table. Only
+     * completed stays count: an order still sitting in a status has not contributed a duration yet.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTimeInStatusReport(LocalDateTime start, LocalDateTime end) {
+        List<Map<String, Object>> report = new ArrayList<>();
+        // [status, transitions, avgSeconds, minSeconds, maxSeconds]
+        for (Object[] row : statusHistoryRepository.getTimeInStatus(start, end)) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("status", row[0]);
+            map.put("transitions", ((Number) row[1]).longValue());
+            map.put("avgHours", hours(row[2]));
+            map.put("minHours", hours(row[3]));
+            map.put("maxHours", hours(row[4]));
+            report.add(map);
+        }
+        return report;
+    }
+
+    private static BigDecimal hours(Object seconds) {
+        if (seconds == null) {
+            return BigDecimal.ZERO;
+        }
+        return new BigDecimal(seconds.toString()).divide(BigDecimal.valueOf(3600), 2, RoundingMode.HALF_UP);
+    }
+}
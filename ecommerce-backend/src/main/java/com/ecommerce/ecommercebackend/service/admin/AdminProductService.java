@@ -3,6 +3,7 @@ package com.ecommerce.ecommercebackend.service.admin;
 import com.ecommerce.ecommercebackend.dto.CategoryDTO;
 import com.ecommerce.ecommercebackend.dto.ProductDTO;
 import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateDTO;
+import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateResultDTO;
 import com.ecommerce.ecommercebackend.entity.Category;
 import com.ecommerce.ecommercebackend.entity.Product;
 import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
@@ -14,7 +15,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -34,6 +38,8 @@ public class AdminProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final ProductBulkMutationService productBulkMutationService;
 
     @Value("${app.upload.dir:uploads/products}")
     private String uploadDir;
@@ -61,43 +67,7 @@ public class AdminProductService {
 
     @Transactional(readOnly = true)
     public Map<String, Object> getProductStats() {
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalProducts = productRepository.count();
-        long activeProducts = productRepository.countByIsActive(true);
-        long inactiveProducts = totalProducts - activeProducts;
-        long outOfStock = productRepository.countByStockQuantity(0);
-        long lowStock = productRepository.countByStockQuantityBetween(1, 10);
-
-        BigDecimal totalInventoryValue = productRepository.getTotalInventoryValue();
-        if (totalInventoryValue == null) {
-            totalInventoryValue = BigDecimal.ZERO;
-        }
-
-        stats.put("totalProducts", totalProducts);
-        stats.put("activeProducts", activeProducts);
-        stats.put("inactiveProducts", inactiveProducts);
-        stats.put("outOfStock", outOfStock);
-        stats.put("lowStock", lowStock);
-        stats.put("totalInventoryValue", totalInventoryValue);
-
-        // Top categories by product count
-        stats.put("topCategories", categoryRepository.findAll().stream()
-                .map(c -> {
-                    Map<String, Object> categoryMap = new HashMap<>();
-                    categoryMap.put("category", c.getName());
-                    categoryMap.put("count", c.getProducts() != null ? c.getProducts().size() : 0);
-                    return categoryMap;
-                })
-                .sorted((a, b) -> {
-                    Integer aCount = (Integer) a.get("count");
-                    Integer bCount = (Integer) b.get("count");
-                    return bCount.compareTo(aCount);
-                })
-                .limit(5)
-                .collect(Collectors.toList()));
-
-        return stats;
+        return inventoryAnalyticsService.getProductStats();
     }
 
     @Transactional(readOnly = true)
@@ -207,28 +177,18 @@ public class AdminProductService {
         return convertToDTO(updatedProduct);
     }
 
-    public List<ProductDTO> bulkUpdateProducts(ProductBulkUpdateDTO bulkUpdateDTO) {
-        List<Product> products = productRepository.findAllById(bulkUpdateDTO.getProductIds());
-
-        products.forEach(product -> {
-            if (bulkUpdateDTO.getDiscountPrice() != null) {
-                product.setDiscountPrice(bulkUpdateDTO.getDiscountPrice());
-            }
-            if (bulkUpdateDTO.getStockAdjustment() != null) {
-                int newStock = product.getStockQuantity() + bulkUpdateDTO.getStockAdjustment();
-                product.setStockQuantity(Math.max(0, newStock));
-            }
-            if (bulkUpdateDTO.getIsActive() != null) {
-                product.setIsActive(bulkUpdateDTO.getIsActive());
-            }
-        });
-
-        List<Product> updatedProducts = productRepository.saveAll(products);
-        log.info("Bulk updated {} products", updatedProducts.size());
+    // Not transactional: the mutation service commits chunk by chunk
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductBulkUpdateResultDTO bulkUpdateProducts(ProductBulkUpdateDTO bulkUpdateDTO, boolean includeProducts) {
+        ProductBulkUpdateResultDTO result = productBulkMutationService.apply(bulkUpdateDTO);
 
-        return updatedProducts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Full DTOs are opt-in; for large selections the summary is all the caller needs
+        if (includeProducts) {
+            result.setProducts(productRepository.findAllById(bulkUpdateDTO.getProductIds()).stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList()));
+        }
+        return result;
     }
 
     // ============= DELETE OPERATIONS =============
@@ -245,31 +205,18 @@ public class AdminProductService {
         log.info("Product deleted successfully: {}", id);
     }
 
-    public void bulkDeleteProducts(List<Long> productIds) {
+    public int bulkDeleteProducts(List<Long> productIds) {
         List<Product> products = productRepository.findAllById(productIds);
-
-        // Delete associated images
-        products.forEach(product -> {
-            if (product.getImageUrl() != null) {
-                deleteImage(product.getImageUrl());
-            }
-        });
+        List<String> imageUrls = products.stream()
+                .map(Product::getImageUrl)
+                .filter(Objects::nonNull)
+                .toList();
 
         productRepository.deleteAll(products);
+        // Only once the rows are gone for good; a rolled-back chunk keeps its images
+        deleteImagesAfterCommit(imageUrls);
         log.info("Bulk deleted {} products", products.size());
-    }
-
-    // ============= EXPORT OPERATIONS =============
-    public List<ProductDTO> exportProducts(List<Long> productIds) {
-        if (productIds == null || productIds.isEmpty()) {
-            return productRepository.findAll().stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-        } else {
-            return productRepository.findAllById(productIds).stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-        }
+        return products.size();
     }
 
     // ============= IMAGE UPLOAD METHOD =============
@@ -380,6 +327,22 @@ public class AdminProductService {
         }
     }
 
+    private void deleteImagesAfterCommit(List<String> imageUrls) {
+        if (imageUrls.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            imageUrls.forEach(this::deleteImage);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                imageUrls.forEach(AdminProductService.this::deleteImage);
+            }
+        });
+    }
+
     private String generateSKU(String productName) {
         String base = productName.toUpperCase()
                 .replaceAll("[^A-Z0-9]", "")
@@ -1,21 +1,30 @@
 package com.ecommerce.ecommercebackend.service.admin;
 
+import com.ecommerce.ecommercebackend.dto.KeysetPageDTO;
 import com.ecommerce.ecommercebackend.dto.UserDTO;
 import com.ecommerce.ecommercebackend.entity.Order;
 import com.ecommerce.ecommercebackend.entity.User;
 import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.security.AccountVersionCache;
+import com.ecommerce.ecommercebackend.service.analytics.OrderAnalyticsEngine;
+import com.ecommerce.ecommercebackend.service.search.SearchSort;
+import com.ecommerce.ecommercebackend.service.search.UserSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,22 +34,63 @@ import java.util.stream.Collectors;
 public class AdminUserService {
 
     private final UserRepository userRepository;
+    private final AccountVersionCache accountVersionCache;
+    private final OrderAnalyticsEngine orderAnalyticsEngine;
+    private final UserSearchIndex userSearchIndex;
+    private final UserStatsCache userStatsCache;
 
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllUsers(Pageable pageable, String role, String search) {
-        User.Role userRole = null;
-        if (role != null && !role.isEmpty()) {
-            try {
-                userRole = User.Role.valueOf(role.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid role: {}", role);
-            }
+        User.Role userRole = parseRole(role);
+
+        // The index serves newest/oldest-first pages; other sorts still go through the query
+        Sort.Direction indexDirection = SearchSort.idDirection(pageable.getSort());
+        if (indexDirection != null && isIndexedSearch(search)) {
+            long[] ids = userSearchIndex.search(search, userRole);
+            long[] page = SearchSort.page(ids, pageable.getOffset(), pageable.getPageSize(), indexDirection);
+            return new PageImpl<>(loadInOrder(page, 0, page.length), pageable, ids.length);
         }
 
         Page<User> users = userRepository.findUsersWithFilters(userRole, search, pageable);
         return users.map(this::convertToDTO);
     }
 
+    /**
+     * Keyset variant of {@link #getAllUsers(Pageable, String, String)}: newest first, each page
+     * continues below the last id of the previous one, so deep pages cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<UserDTO> getAllUsers(String cursor, int size, String role, String search) {
+        User.Role userRole = parseRole(role);
+        Long afterId = parseCursor(cursor);
+
+        List<UserDTO> content;
+        boolean hasNext;
+        if (isIndexedSearch(search)) {
+            long[] ids = userSearchIndex.search(search, userRole);
+            int from = 0;
+            if (afterId != null) {
+                // ids are descending; skip everything at or above the cursor
+                while (from < ids.length && ids[from] >= afterId) {
+                    from++;
+                }
+            }
+            int to = Math.min(from + size, ids.length);
+            content = loadInOrder(ids, from, to);
+            hasNext = to < ids.length;
+        } else {
+            String filter = search != null && !search.isBlank() ? search : null;
+            List<User> users = userRepository.findUsersAfter(userRole, afterId, filter, Pageable.ofSize(size + 1));
+            hasNext = users.size() > size;
+            content = users.stream().limit(size).map(this::convertToDTO).collect(Collectors.toList());
+        }
+
+        String nextCursor = hasNext && !content.isEmpty()
+                ? String.valueOf(content.get(content.size() - 1).getId())
+                : null;
+        return new KeysetPageDTO<>(content, content.size(), nextCursor, hasNext);
+    }
+
     @Transactional(readOnly = true)
     public UserDTO getUserDetails(Long id) {
         User user = userRepository.findById(id)
@@ -52,6 +102,7 @@ public class AdminUserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
+        User.Role oldRole = user.getRole();
         try {
             User.Role newRole = User.Role.valueOf(role.toUpperCase());
             user.setRole(newRole);
@@ -59,7 +110,11 @@ public class AdminUserService {
             throw new IllegalArgumentException("Invalid role: " + role);
         }
 
+        bumpTokenVersion(user);
         User updatedUser = userRepository.save(user);
+        accountVersionCache.update(id, updatedUser.getTokenVersion());
+        userSearchIndex.index(updatedUser);
+        userStatsCache.roleChanged(oldRole, updatedUser.getRole());
         log.info("User {} role updated to: {}", id, role);
 
         return convertToDTO(updatedUser);
@@ -70,7 +125,10 @@ public class AdminUserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
         user.setIsActive(!user.getIsActive());
+        bumpTokenVersion(user);
         User updatedUser = userRepository.save(user);
+        accountVersionCache.update(id, updatedUser.getTokenVersion());
+        userStatsCache.statusToggled(updatedUser.getIsActive());
 
         log.info("User {} status toggled to: {}", id, updatedUser.getIsActive());
         return convertToDTO(updatedUser);
@@ -78,20 +136,7 @@ public class AdminUserService {
 
     @Transactional(readOnly = true)
     public Map<String, Long> getUserStats() {
-        Map<String, Long> stats = new HashMap<>();
-
-        stats.put("totalUsers", userRepository.count());
-        stats.put("totalCustomers", userRepository.countByRole(User.Role.CUSTOMER));
-        stats.put("totalAdmins", userRepository.countByRole(User.Role.ADMIN));
-        stats.put("totalModerators", userRepository.countByRole(User.Role.MODERATOR));
-        stats.put("totalSellers", userRepository.countByRole(User.Role.SELLER));
-
-        stats.put("activeUsers", userRepository.countByIsActiveTrue());
-        stats.put("inactiveUsers", userRepository.countByIsActiveFalse());
-        stats.put("verifiedEmails", userRepository.countByIsEmailVerifiedTrue());
-        stats.put("unverifiedEmails", userRepository.countByIsEmailVerifiedFalse());
-
-        return stats;
+        return userStatsCache.get();
     }
 
     @Transactional(readOnly = true)
@@ -127,6 +172,11 @@ public class AdminUserService {
 
     @Transactional(readOnly = true)
     public List<UserDTO> searchUsers(String query) {
+        if (isIndexedSearch(query)) {
+            long[] ids = userSearchIndex.search(query);
+            return loadInOrder(ids, 0, Math.min(20, ids.length));
+        }
+
         List<User> users = userRepository.searchUsers(query, Pageable.ofSize(20));
         return users.stream()
                 .map(this::convertToDTO)
@@ -135,6 +185,10 @@ public class AdminUserService {
 
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getTopCustomers(int limit) {
+        if (orderAnalyticsEngine.isReady()) {
+            return orderAnalyticsEngine.getTopCustomers(limit);
+        }
+
         List<Object[]> results = userRepository.findTopCustomers(Pageable.ofSize(limit));
 
         return results.stream()
@@ -160,6 +214,56 @@ public class AdminUserService {
                 .collect(Collectors.toList());
     }
 
+    private User.Role parseRole(String role) {
+        if (role != null && !role.isEmpty()) {
+            try {
+                return User.Role.valueOf(role.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid role: {}", role);
+            }
+        }
+        return null;
+    }
+
+    private Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private boolean isIndexedSearch(String search) {
+        return search != null && !search.isBlank() && userSearchIndex.isReady();
+    }
+
+    // Loads ids[from, to) and returns them in index order
+    private List<UserDTO> loadInOrder(long[] ids, int from, int to) {
+        if (from >= to) {
+            return List.of();
+        }
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[i]);
+        }
+        Map<Long, User> byId = userRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        return pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    // Invalidates tokens issued before this change
+    private void bumpTokenVersion(User user) {
+        int current = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(current + 1);
+    }
+
     private UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
@@ -0,0 +1,167 @@
+package com.ecommerce.ecommercebackend.service.admin;
+
+import com.ecommerce.ecommercebackend.dto.admin.BulkOrderTransitionResultDTO;
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.service.order.OrderStateMachine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Moves many orders to one status at once. Orders are read and locked per chunk, checked against
+ * the transition rules on {@link Order}, and updated with a single UPDATE per chunk that also
+ * stamps the shipped/delivered/cancelled timestamps. The entry hooks (history, stock, emails) run
+ * through {@link OrderStateMachine} once per chunk, so the cost grows with the number of chunks
+ * rather than the number of orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BulkOrderTransitionService {
+
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderStateMachine orderStateMachine;
+
+    // Orders locked and updated per statement
+    @Value("${app.orders.bulk-transition.chunk-size:1000}")
+    private int chunkSize;
+
+    public BulkOrderTransitionResultDTO transition(List<Long> orderIds, Order.OrderStatus target) {
+        long startedAt = System.currentTimeMillis();
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("No orders selected");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        ids.removeIf(Objects::isNull);
+
+        BulkOrderTransitionResultDTO result = new BulkOrderTransitionResultDTO();
+        List<BulkOrderTransitionResultDTO.Rejection> rejections = new ArrayList<>();
+        int found = 0;
+        int transitioned = 0;
+        int unchanged = 0;
+        int rejected = 0;
+        Map<Long, Long> restocked = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            List<Order> current = jdbcTemplate.query(
+                    "SELECT id, order_number, status, payment_status, created_at, total_amount FROM orders " +
+                            "WHERE id IN (" + placeholders(chunk.size()) + ") FOR UPDATE",
+                    (rs, rowNum) -> toOrder(rs), chunk.toArray());
+            found += current.size();
+
+            List<Order> eligible = new ArrayList<>();
+            Map<Long, Order.OrderStatus> previousStatuses = new HashMap<>();
+            for (Order order : current) {
+                String reason = order.transitionRejectionReason(target);
+                if (order.getStatus() == target) {
+                    unchanged++;
+                } else if (reason != null) {
+                    rejected++;
+                    if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                        rejections.add(new BulkOrderTransitionResultDTO.Rejection(
+                                order.getId(), order.getOrderNumber(), order.getStatus().name(), reason));
+                    }
+                } else {
+                    previousStatuses.put(order.getId(), order.getStatus());
+                    eligible.add(order);
+                }
+            }
+            if (eligible.isEmpty()) {
+                continue;
+            }
+
+            List<Long> eligibleIds = eligible.stream().map(Order::getId).toList();
+            applyStatus(eligibleIds, target);
+            eligible.forEach(order -> order.setStatus(target));
+            transitioned += eligible.size();
+
+            orderStateMachine.entered(eligible, previousStatuses, "Bulk status update")
+                    .forEach((productId, units) -> restocked.merge(productId, units, Long::sum));
+        }
+        boolean notifies = target == Order.OrderStatus.SHIPPED || target == Order.OrderStatus.DELIVERED;
+
+        result.setTargetStatus(target.name());
+        result.setRequested(ids.size());
+        result.setTransitioned(transitioned);
+        result.setUnchanged(unchanged);
+        result.setNotFound(ids.size() - found);
+        result.setRejected(rejected);
+        result.setRejections(rejections);
+        result.setRejectionsTruncated(rejected > rejections.size());
+        result.setProductsRestocked(restocked.size());
+        result.setUnitsRestocked(restocked.values().stream().mapToLong(Long::longValue).sum());
+        result.setEmailsQueued(notifies ? transitioned : 0);
+        result.setDurationMs(System.currentTimeMillis() - startedAt);
+
+        log.info("Bulk transition to {}: {} moved, {} unchanged, {} rejected, {} not found ({} ms)",
+                target, transitioned, unchanged, rejected, result.getNotFound(), result.getDurationMs());
+        return result;
+    }
+
+    // ============= HELPERS =============
+
+    private void applyStatus(List<Long> orderIds, Order.OrderStatus target) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> args = new ArrayList<>(List.of(target.name(), now));
+        StringBuilder sql = new StringBuilder("UPDATE orders SET status = ?, updated_at = ?");
+        switch (target) {
+            case SHIPPED -> {
+                sql.append(", shipped_at = COALESCE(shipped_at, ?)");
+                args.add(now);
+            }
+            case DELIVERED -> {
+                sql.append(", delivered_at = COALESCE(delivered_at, ?)");
+                args.add(now);
+            }
+            case CANCELLED -> {
+                sql.append(", cancelled_at = COALESCE(cancelled_at, ?)");
+                args.add(now);
+            }
+            case REFUNDED -> {
+                sql.append(", payment_status = ?");
+                args.add(Order.PaymentStatus.REFUNDED.name());
+            }
+            default -> {
+            }
+        }
+        sql.append(" WHERE id IN (").append(placeholders(orderIds.size())).append(")");
+        args.addAll(orderIds);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static Order toOrder(ResultSet rs) throws SQLException {
+        Order order = new Order();
+        order.setId(rs.getLong("id"));
+        order.setOrderNumber(rs.getString("order_number"));
+        order.setStatus(Order.OrderStatus.valueOf(rs.getString("status")));
+        String paymentStatus = rs.getString("payment_status");
+        order.setPaymentStatus(paymentStatus != null ? Order.PaymentStatus.valueOf(paymentStatus) : null);
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        order.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        order.setTotalAmount(rs.getBigDecimal("total_amount"));
+        return order;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.ecommercebackend.service.admin;
+
+import com.ecommerce.ecommercebackend.dto.admin.DashboardStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Short-lived snapshot of the admin dashboard stats.
+ * <ul>
+ *   <li>fresh (younger than ttl): served as is</li>
+ *   <li>stale (within the stale window): served as is while one background refresh runs</li>
+ *   <li>missing or too old: callers wait for the refresh</li>
+ * </ul>
+ * At most one computation runs at a time; concurrent misses all wait on the same future.
+ */
+@Component
+@Slf4j
+public class DashboardStatsCache {
+
+    private final AdminDashboardService dashboardService;
+    private final Executor refreshExecutor;
+
+    @Value("${app.dashboard.cache.ttl-ms:15000}")
+    private long ttlMs;
+
+    // How long past ttl a snapshot may still be served while it is being refreshed
+    @Value("${app.dashboard.cache.stale-ms:60000}")
+    private long staleMs;
+
+    @Value("${app.dashboard.cache.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private volatile Snapshot snapshot;
+    private final AtomicReference<CompletableFuture<DashboardStatsDTO>> inFlight = new AtomicReference<>();
+    // Bumped by invalidate() so a computation that started before it is not treated as fresh
+    private final AtomicLong generation = new AtomicLong();
+
+    public DashboardStatsCache(AdminDashboardService dashboardService,
+                               @Qualifier("dashboardRefreshExecutor") Executor refreshExecutor) {
+        this.dashboardService = dashboardService;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public DashboardStatsDTO get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            long age = System.currentTimeMillis() - current.computedAt();
+            if (age < ttlMs) {
+                return current.stats();
+            }
+            if (age < ttlMs + staleMs) {
+                refresh();
+                return current.stats();
+            }
+        }
+        return await(refresh(), current);
+    }
+
+    /**
+     * Marks the snapshot stale after a bulk change. The next read still answers immediately
+     * and triggers a refresh.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        Snapshot current = snapshot;
+        if (current != null) {
+            snapshot = new Snapshot(current.stats(), System.currentTimeMillis() - ttlMs);
+        }
+    }
+
+    // ============= HELPERS =============
+
+    // Returns the running computation, starting one if there is none
+    private CompletableFuture<DashboardStatsDTO> refresh() {
+        while (true) {
+            CompletableFuture<DashboardStatsDTO> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<DashboardStatsDTO> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                start(mine);
+                return mine;
+            }
+        }
+    }
+
+    private void start(CompletableFuture<DashboardStatsDTO> future) {
+        long startedGeneration = generation.get();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long startedAt = System.currentTimeMillis();
+                    DashboardStatsDTO stats = dashboardService.getDashboardStats();
+                    // Invalidated while computing, or partial: keep the result but let the next read refresh again
+                    boolean complete = stats.getDegradedSections() == null || stats.getDegradedSections().isEmpty();
+                    long computedAt = complete && generation.get() == startedGeneration ? startedAt : startedAt - ttlMs;
+                    snapshot = new Snapshot(stats, computedAt);
+                    log.debug("Dashboard stats recomputed in {} ms", System.currentTimeMillis() - startedAt);
+                    future.complete(stats);
+                } catch (Throwable e) {
+                    log.error("Failed to compute dashboard stats: {}", e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.compareAndSet(future, null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.compareAndSet(future, null);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private DashboardStatsDTO await(CompletableFuture<DashboardStatsDTO> future, Snapshot fallback) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading dashboard stats", e);
+        } catch (TimeoutException | ExecutionException e) {
+            // An old snapshot beats an error page
+            if (fallback != null) {
+                log.warn("Serving expired dashboard snapshot: {}", e.getMessage());
+                return fallback.stats();
+            }
+            if (e instanceof ExecutionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Dashboard stats unavailable", e);
+        }
+    }
+
+    private record Snapshot(DashboardStatsDTO stats, long computedAt) {
+    }
+}
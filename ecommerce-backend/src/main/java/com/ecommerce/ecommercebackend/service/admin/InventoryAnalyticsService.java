@@ -0,0 +1,128 @@
+package com.ecommerce.ecommercebackend.service.admin;
+
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventory figures for the admin reports, computed by the database with grouped aggregates.
+ * Two queries in total - one catalog-wide row and one row per category - so memory and
+ * response time do not grow with the number of products.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class InventoryAnalyticsService {
+
+    private final ProductRepository productRepository;
+
+    // Products with 1..threshold units left count as low stock
+    @Value("${app.inventory.low-stock-threshold:10}")
+    private int lowStockThreshold;
+
+    public Map<String, Object> getInventoryReport() {
+        Summary summary = loadSummary();
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalProducts", summary.totalProducts());
+        report.put("totalUnits", summary.totalUnits());
+        report.put("totalStockValue", summary.totalStockValue());
+        report.put("lowStockCount", summary.lowStock());
+        report.put("outOfStockCount", summary.outOfStock());
+        report.put("lowStockThreshold", lowStockThreshold);
+        report.put("categories", getCategoryInventory());
+        return report;
+    }
+
+    public Map<String, Object> getProductStats() {
+        Summary summary = loadSummary();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProducts", summary.totalProducts());
+        stats.put("activeProducts", summary.activeProducts());
+        stats.put("inactiveProducts", summary.totalProducts() - summary.activeProducts());
+        stats.put("outOfStock", summary.outOfStock());
+        stats.put("lowStock", summary.lowStock());
+        stats.put("totalInventoryValue", summary.totalStockValue());
+
+        // Top categories by product count (rows already come largest first). Products without a
+        // category are reported on their own rather than taking one of the five slots.
+        List<Map<String, Object>> topCategories = new ArrayList<>();
+        long uncategorized = 0;
+        for (Map<String, Object> category : getCategoryInventory()) {
+            if (category.get("categoryId") == null) {
+                uncategorized += (Long) category.get("productCount");
+                continue;
+            }
+            if (topCategories.size() == 5) {
+                continue;
+            }
+            Map<String, Object> categoryMap = new HashMap<>();
+            categoryMap.put("category", category.get("category"));
+            categoryMap.put("count", category.get("productCount"));
+            topCategories.add(categoryMap);
+        }
+        stats.put("topCategories", topCategories);
+        stats.put("uncategorizedProducts", uncategorized);
+
+        return stats;
+    }
+
+    public List<Map<String, Object>> getCategoryInventory() {
+        List<Map<String, Object>> categories = new ArrayList<>();
+        // [categoryId, categoryName, products, outOfStock, lowStock, totalUnits, totalStockValue]
+        for (Object[] row : productRepository.getInventoryByCategory(lowStockThreshold)) {
+            Map<String, Object> category = new HashMap<>();
+            category.put("categoryId", row[0]);
+            category.put("category", row[1] != null ? row[1] : "Uncategorized");
+            category.put("productCount", toLong(row[2]));
+            category.put("outOfStockCount", toLong(row[3]));
+            category.put("lowStockCount", toLong(row[4]));
+            category.put("totalUnits", toLong(row[5]));
+            category.put("stockValue", toBigDecimal(row[6]));
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    // ============= HELPERS =============
+
+    private Summary loadSummary() {
+        List<Object[]> rows = productRepository.getInventorySummary(lowStockThreshold);
+        if (rows.isEmpty()) {
+            return new Summary(0, 0, 0, 0, 0, BigDecimal.ZERO);
+        }
+        // [totalProducts, activeProducts, outOfStock, lowStock, totalUnits, totalStockValue]
+        Object[] row = rows.get(0);
+        return new Summary(toLong(row[0]), toLong(row[1]), toLong(row[2]), toLong(row[3]),
+                toLong(row[4]), toBigDecimal(row[5]));
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal bigDecimal) {
+            return bigDecimal;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    private record Summary(long totalProducts, long activeProducts, long outOfStock, long lowStock,
+                           long totalUnits, BigDecimal totalStockValue) {
+    }
+}
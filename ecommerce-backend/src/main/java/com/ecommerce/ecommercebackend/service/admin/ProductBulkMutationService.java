@@ -0,0 +1,145 @@
+package com.ecommerce.ecommercebackend.service.admin;
+
+import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateDTO;
+import com.ecommerce.ecommercebackend.dto.admin.ProductBulkUpdateResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies a {@link ProductBulkUpdateDTO} as set-based UPDATE statements, one per chunk of ids,
+ * instead of loading, mutating and saving every product. Only the fields present in the request
+ * are touched; stock adjustments are clamped at zero in SQL.
+ * <p>
+ * Each chunk commits on its own, so row locks and undo are held for one chunk at a time. If a chunk
+ * fails, the chunks before it stay applied; the update is idempotent apart from stock adjustments,
+ * which the caller should not blindly retry. Called inside an existing transaction (the admin job
+ * runner), the chunks join it instead.
+ */
+@Service
+@Slf4j
+public class ProductBulkMutationService {
+
+    private static final int MAX_REPORTED_MISSING = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    // Ids per UPDATE ... WHERE id IN (...), and per transaction
+    @Value("${app.products.bulk-update.chunk-size:1000}")
+    private int chunkSize;
+
+    public ProductBulkMutationService(JdbcTemplate jdbcTemplate,
+                                      DashboardStatsCache dashboardStatsCache,
+                                      PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dashboardStatsCache = dashboardStatsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ProductBulkUpdateResultDTO apply(ProductBulkUpdateDTO request) {
+        long startedAt = System.currentTimeMillis();
+        if (request.getProductIds() == null || request.getProductIds().isEmpty()) {
+            throw new IllegalArgumentException("No products selected");
+        }
+        if (request.getDiscountPrice() == null && request.getStockAdjustment() == null && request.getIsActive() == null) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        if (request.getDiscountPrice() != null && request.getDiscountPrice().signum() < 0) {
+            throw new IllegalArgumentException("Discount price cannot be negative");
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getProductIds()));
+        ids.removeIf(id -> id == null);
+
+        List<String> assignments = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if (request.getDiscountPrice() != null) {
+            assignments.add("discount_price = ?");
+            values.add(request.getDiscountPrice());
+        }
+        if (request.getStockAdjustment() != null) {
+            assignments.add("stock_quantity = GREATEST(0, stock_quantity + ?)");
+            values.add(request.getStockAdjustment());
+        }
+        if (request.getIsActive() != null) {
+            assignments.add("is_active = ?");
+            values.add(request.getIsActive());
+        }
+        // Bulk statements skip @PreUpdate, so stamp updated_at here
+        assignments.add("updated_at = ?");
+        values.add(Timestamp.valueOf(LocalDateTime.now()));
+        String setClause = String.join(", ", assignments);
+
+        int chunks = 0;
+        Set<Long> found = new HashSet<>(ids.size());
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+                List<Object> args = new ArrayList<>(values);
+                args.addAll(chunk);
+                found.addAll(transactionTemplate.execute(status -> {
+                    List<Long> existing = jdbcTemplate.queryForList(
+                            "SELECT id FROM products WHERE id IN (" + placeholders + ")", Long.class, chunk.toArray());
+                    jdbcTemplate.update("UPDATE products SET " + setClause + " WHERE id IN (" + placeholders + ")",
+                            args.toArray());
+                    return existing;
+                }));
+                chunks++;
+            }
+        } finally {
+            // Also after a failed chunk: the ones before it are committed
+            if (!found.isEmpty()) {
+                invalidateCachesAfterCommit();
+            }
+        }
+
+        // Counted from the SELECT: the UPDATE count depends on the driver's found-rows setting
+        int matched = found.size();
+        List<Long> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+
+        ProductBulkUpdateResultDTO result = new ProductBulkUpdateResultDTO();
+        result.setRequested(ids.size());
+        result.setMatched(matched);
+        result.setNotFound(missing.size());
+        result.setNotFoundIds(missing.size() > MAX_REPORTED_MISSING ? missing.subList(0, MAX_REPORTED_MISSING) : missing);
+        result.setNotFoundIdsTruncated(missing.size() > MAX_REPORTED_MISSING);
+        result.setChunks(chunks);
+        result.setDurationMs(System.currentTimeMillis() - startedAt);
+
+        log.info("Bulk updated {} of {} products in {} chunks ({} ms)", matched, ids.size(), chunks, result.getDurationMs());
+        return result;
+    }
+
+    // ============= HELPERS =============
+
+    private void invalidateCachesAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dashboardStatsCache.invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dashboardStatsCache.invalidate();
+            }
+        });
+    }
+}
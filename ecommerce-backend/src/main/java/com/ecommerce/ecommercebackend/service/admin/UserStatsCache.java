@@ -0,0 +1,157 @@
+package com.ecommerce.ecommercebackend.service.admin;
+
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * User counters for the admin panel. Loaded with one conditional-aggregation query and then
+ * kept current by deltas from the services that register, verify, re-role and (de)activate
+ * users, applied after their transaction commits. The snapshot is reloaded once it is older than
+ * the ttl, which also corrects any drift from writes made outside those services.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatsCache {
+
+    private static final int TOTAL = 0;
+    private static final int ACTIVE = 5;
+    private static final int INACTIVE = 6;
+    private static final int VERIFIED = 7;
+    private static final int UNVERIFIED = 8;
+
+    private final UserRepository userRepository;
+
+    @Value("${app.users.stats.ttl-ms:60000}")
+    private long ttlMs;
+
+    // [total, customers, admins, moderators, sellers, active, inactive, verified, unverified]
+    private long[] counts;
+    private long loadedAt;
+    // Set when a delta lands while the aggregate query runs; that result may predate the delta
+    private boolean changedDuringLoad;
+
+    public Map<String, Long> get() {
+        long[] current;
+        synchronized (this) {
+            current = counts != null && System.currentTimeMillis() - loadedAt < ttlMs ? counts.clone() : null;
+        }
+        if (current == null) {
+            current = reload();
+        }
+
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("totalUsers", current[TOTAL]);
+        stats.put("totalCustomers", current[roleIndex(User.Role.CUSTOMER)]);
+        stats.put("totalAdmins", current[roleIndex(User.Role.ADMIN)]);
+        stats.put("totalModerators", current[roleIndex(User.Role.MODERATOR)]);
+        stats.put("totalSellers", current[roleIndex(User.Role.SELLER)]);
+        stats.put("activeUsers", current[ACTIVE]);
+        stats.put("inactiveUsers", current[INACTIVE]);
+        stats.put("verifiedEmails", current[VERIFIED]);
+        stats.put("unverifiedEmails", current[UNVERIFIED]);
+        return stats;
+    }
+
+    // ============= DELTAS =============
+
+    public void userRegistered(User user) {
+        User.Role role = user.getRole();
+        Boolean active = user.getIsActive();
+        Boolean verified = user.getIsEmailVerified();
+        afterCommit(counters -> {
+            counters[TOTAL]++;
+            if (role != null) {
+                counters[roleIndex(role)]++;
+            }
+            if (active != null) {
+                counters[active ? ACTIVE : INACTIVE]++;
+            }
+            if (verified != null) {
+                counters[verified ? VERIFIED : UNVERIFIED]++;
+            }
+        });
+    }
+
+    public void emailVerified() {
+        afterCommit(counters -> {
+            counters[VERIFIED]++;
+            counters[UNVERIFIED]--;
+        });
+    }
+
+    public void roleChanged(User.Role from, User.Role to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(counters -> {
+            if (from != null) {
+                counters[roleIndex(from)]--;
+            }
+            counters[roleIndex(to)]++;
+        });
+    }
+
+    public void statusToggled(boolean nowActive) {
+        afterCommit(counters -> {
+            counters[nowActive ? ACTIVE : INACTIVE]++;
+            counters[nowActive ? INACTIVE : ACTIVE]--;
+        });
+    }
+
+    // ============= HELPERS =============
+
+    private long[] reload() {
+        synchronized (this) {
+            changedDuringLoad = false;
+        }
+        List<Object[]> rows = userRepository.getUserStatsSummary();
+        long[] loaded = new long[UNVERIFIED + 1];
+        if (!rows.isEmpty()) {
+            Object[] row = rows.get(0);
+            for (int i = 0; i < loaded.length; i++) {
+                loaded[i] = row[i] != null ? ((Number) row[i]).longValue() : 0L;
+            }
+        }
+        synchronized (this) {
+            counts = loaded.clone();
+            // Serve it, but reload on the next read instead of building deltas on top of it
+            loadedAt = changedDuringLoad ? 0L : System.currentTimeMillis();
+        }
+        return loaded;
+    }
+
+    // Role columns follow the enum declaration order in getUserStatsSummary
+    private static int roleIndex(User.Role role) {
+        return 1 + role.ordinal();
+    }
+
+    private synchronized void apply(Consumer<long[]> delta) {
+        changedDuringLoad = true;
+        if (counts != null) {
+            delta.accept(counts);
+        }
+    }
+
+    private void afterCommit(Consumer<long[]> delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(delta);
+            }
+        });
+    }
+}
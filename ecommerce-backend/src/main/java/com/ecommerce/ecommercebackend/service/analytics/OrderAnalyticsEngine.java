@@ -0,0 +1,275 @@
+package com.ecommerce.ecommercebackend.service.analytics;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Answers ad-hoc admin reports from an in-memory columnar snapshot of orders instead of MySQL.
+ * The snapshot is rebuilt periodically with two streamed queries and swapped in atomically;
+ * reports scan primitive arrays, large scans split across a fork-join pool.
+ * Results lag the database by at most one refresh interval.
+ */
+@Service
+@Slf4j
+public class OrderAnalyticsEngine {
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    // Below this many rows a scan is not worth splitting
+    private static final int MIN_SPLIT = 16_384;
+
+    private final JdbcTemplate streamingJdbc;
+    private final ForkJoinPool scanPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @Value("${app.analytics.snapshot.enabled:true}")
+    private boolean enabled;
+
+    private volatile OrderColumns snapshot;
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    public OrderAnalyticsEngine(DataSource dataSource) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        // MySQL Connector/J streams rows one at a time only with this fetch size
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.snapshot.refresh-ms:300000}",
+            initialDelayString = "${app.analytics.snapshot.initial-delay-ms:15000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public Map<String, Object> rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            log.info("Analytics snapshot build already in progress, skipping");
+            return getStatus();
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+
+            OrderColumns.UserBuilder users = new OrderColumns.UserBuilder();
+            streamingJdbc.query("SELECT id, first_name, last_name, email FROM users ORDER BY id", rs -> {
+                users.add(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+            });
+
+            OrderColumns.OrderBuilder orders = new OrderColumns.OrderBuilder();
+            streamingJdbc.query(
+                    "SELECT o.id, o.created_at, o.total_amount, o.status, o.user_id, o.order_number, " +
+                            "COALESCE(i.items, 0) " +
+                            "FROM orders o LEFT JOIN (SELECT order_id, SUM(quantity) AS items " +
+                            "FROM order_items GROUP BY order_id) i ON i.order_id = o.id " +
+                            "ORDER BY o.created_at, o.id",
+                    rs -> {
+                        Timestamp created = rs.getTimestamp(2);
+                        long createdAt = created != null
+                                ? created.toLocalDateTime().toEpochSecond(ZoneOffset.UTC) : 0L;
+                        BigDecimal total = rs.getBigDecimal(3);
+                        long cents = total != null ? total.movePointRight(2).longValue() : 0L;
+                        orders.add(rs.getLong(1), createdAt, cents, statusCode(rs.getString(4)),
+                                users.indexOf(rs.getLong(5)), rs.getInt(7), rs.getString(6));
+                    });
+
+            long finishedAt = System.currentTimeMillis();
+            snapshot = OrderColumns.of(orders, users, finishedAt, finishedAt - startedAt);
+            log.info("Analytics snapshot built: {} orders, {} customers in {} ms",
+                    snapshot.size, snapshot.userCount, finishedAt - startedAt);
+        } catch (Exception e) {
+            log.error("Failed to build analytics snapshot: {}", e.getMessage(), e);
+        } finally {
+            building.set(false);
+        }
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        OrderColumns current = snapshot;
+        status.put("enabled", enabled);
+        status.put("ready", current != null);
+        status.put("building", building.get());
+        if (current != null) {
+            status.put("orders", current.size);
+            status.put("customers", current.userCount);
+            status.put("builtAt", Instant.ofEpochMilli(current.builtAtMillis).toString());
+            status.put("buildDurationMs", current.buildDurationMs);
+        }
+        return status;
+    }
+
+    // ============= REPORTS =============
+
+    /**
+     * Customers ranked by number of orders, then amount spent - same shape as
+     * {@code UserRepository.findTopCustomers}.
+     */
+    public List<Map<String, Object>> getTopCustomers(int limit) {
+        OrderColumns columns = requireSnapshot();
+        CustomerTotals totals = scanPool.invoke(new CustomerTotalsTask(columns, 0, columns.size, splitSize(columns)));
+        long[] orderCounts = totals.orderCounts;
+        long[] spentCents = totals.spentCents;
+
+        // Min-heap of the best `limit` customers seen so far
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, limit), (a, b) -> {
+            int byCount = Long.compare(orderCounts[a], orderCounts[b]);
+            return byCount != 0 ? byCount : Long.compare(spentCents[a], spentCents[b]);
+        });
+        for (int user = 0; user < columns.userCount; user++) {
+            best.offer(user);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int user = best.poll();
+            Map<String, Object> data = new HashMap<>();
+            data.put("userId", columns.userId[user]);
+            data.put("firstName", columns.firstName[user]);
+            data.put("lastName", columns.lastName[user]);
+            data.put("email", columns.email[user]);
+            data.put("orderCount", orderCounts[user]);
+            data.put("totalSpent", BigDecimal.valueOf(spentCents[user], 2));
+            result.add(0, data);
+        }
+        return result;
+    }
+
+    // Orders created in [start, end], oldest first
+    public List<Map<String, Object>> getOrdersByDateRange(LocalDateTime start, LocalDateTime end) {
+        OrderColumns columns = requireSnapshot();
+        int from = columns.lowerBound(start.toEpochSecond(ZoneOffset.UTC));
+        int to = columns.upperBound(end.toEpochSecond(ZoneOffset.UTC));
+
+        List<Map<String, Object>> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", columns.orderId[i]);
+            map.put("orderNumber", columns.orderNumber[i]);
+            map.put("date", LocalDate.ofEpochDay(columns.epochDay[i]).format(DateTimeFormatter.ISO_DATE));
+            map.put("total", BigDecimal.valueOf(columns.totalCents[i], 2));
+            map.put("status", columns.status[i] >= 0 ? STATUSES[columns.status[i]] : null);
+            result.add(map);
+        }
+        return result;
+    }
+
+    // ============= HELPERS =============
+
+    private OrderColumns requireSnapshot() {
+        OrderColumns current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Analytics snapshot is not built yet");
+        }
+        return current;
+    }
+
+    private int splitSize(OrderColumns columns) {
+        return Math.max(MIN_SPLIT, columns.size / (scanPool.getParallelism() * 2) + 1);
+    }
+
+    private static byte statusCode(String status) {
+        if (status == null) {
+            return -1;
+        }
+        try {
+            return (byte) Order.OrderStatus.valueOf(status).ordinal();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // Each customer's order count and spend over rows [from, to). Leaves add into their own plain
+    // arrays and compute() merges the halves, so the scan has no atomic adds or shared cache lines;
+    // the split size keeps leaves to a small multiple of the pool's parallelism, which bounds the arrays.
+    private static final class CustomerTotalsTask extends RecursiveTask<CustomerTotals> {
+        private final OrderColumns columns;
+        private final int from;
+        private final int to;
+        private final int splitSize;
+
+        CustomerTotalsTask(OrderColumns columns, int from, int to, int splitSize) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected CustomerTotals compute() {
+            if (to - from <= splitSize) {
+                CustomerTotals totals = new CustomerTotals(columns.userCount);
+                int[] userIndex = columns.userIndex;
+                long[] totalCents = columns.totalCents;
+                long[] orderCounts = totals.orderCounts;
+                long[] spentCents = totals.spentCents;
+                for (int i = from; i < to; i++) {
+                    int user = userIndex[i];
+                    if (user >= 0) {
+                        orderCounts[user]++;
+                        spentCents[user] += totalCents[i];
+                    }
+                }
+                return totals;
+            }
+
+            int mid = (from + to) >>> 1;
+            CustomerTotalsTask left = new CustomerTotalsTask(columns, from, mid, splitSize);
+            CustomerTotalsTask right = new CustomerTotalsTask(columns, mid, to, splitSize);
+            right.fork();
+            CustomerTotals totals = left.compute();
+            totals.add(right.join());
+            return totals;
+        }
+    }
+
+    private static final class CustomerTotals {
+        private final long[] orderCounts;
+        private final long[] spentCents;
+
+        CustomerTotals(int userCount) {
+            this.orderCounts = new long[userCount];
+            this.spentCents = new long[userCount];
+        }
+
+        void add(CustomerTotals other) {
+            for (int user = 0; user < orderCounts.length; user++) {
+                orderCounts[user] += other.orderCounts[user];
+                spentCents[user] += other.spentCents[user];
+            }
+        }
+    }
+}
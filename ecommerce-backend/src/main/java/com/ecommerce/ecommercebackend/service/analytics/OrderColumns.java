@@ -0,0 +1,151 @@
+package com.ecommerce.ecommercebackend.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Immutable column-oriented copy of orders (one primitive array per field, same index = same order)
+ * plus the customers they belong to. Orders are sorted by createdAt, so a date range is two binary
+ * searches followed by a contiguous scan.
+ * Timestamps are local date-times encoded as epoch seconds at UTC, so epochDay is a plain division.
+ */
+final class OrderColumns {
+
+    final int size;
+    final long[] orderId;
+    final long[] createdAt;
+    final int[] epochDay;
+    final long[] totalCents;
+    final byte[] status;
+    final int[] userIndex;
+    final int[] itemsSold;
+    final String[] orderNumber;
+
+    // Customer dimension, sorted by id; userIndex points into these
+    final int userCount;
+    final long[] userId;
+    final String[] firstName;
+    final String[] lastName;
+    final String[] email;
+
+    final long builtAtMillis;
+    final long buildDurationMs;
+
+    private OrderColumns(OrderBuilder orders, UserBuilder users, long builtAtMillis, long buildDurationMs) {
+        this.size = orders.size;
+        this.orderId = Arrays.copyOf(orders.orderId, size);
+        this.createdAt = Arrays.copyOf(orders.createdAt, size);
+        this.epochDay = Arrays.copyOf(orders.epochDay, size);
+        this.totalCents = Arrays.copyOf(orders.totalCents, size);
+        this.status = Arrays.copyOf(orders.status, size);
+        this.userIndex = Arrays.copyOf(orders.userIndex, size);
+        this.itemsSold = Arrays.copyOf(orders.itemsSold, size);
+        this.orderNumber = Arrays.copyOf(orders.orderNumber, size);
+
+        this.userCount = users.size;
+        this.userId = Arrays.copyOf(users.userId, userCount);
+        this.firstName = Arrays.copyOf(users.firstName, userCount);
+        this.lastName = Arrays.copyOf(users.lastName, userCount);
+        this.email = Arrays.copyOf(users.email, userCount);
+
+        this.builtAtMillis = builtAtMillis;
+        this.buildDurationMs = buildDurationMs;
+    }
+
+    static OrderColumns of(OrderBuilder orders, UserBuilder users, long builtAtMillis, long buildDurationMs) {
+        return new OrderColumns(orders, users, builtAtMillis, buildDurationMs);
+    }
+
+    // First index with createdAt >= value
+    int lowerBound(long value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (createdAt[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First index with createdAt > value
+    int upperBound(long value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (createdAt[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static final class UserBuilder {
+        private int size;
+        private long[] userId = new long[1024];
+        private String[] firstName = new String[1024];
+        private String[] lastName = new String[1024];
+        private String[] email = new String[1024];
+
+        // Rows must arrive in ascending id order
+        void add(long id, String first, String last, String mail) {
+            if (size == userId.length) {
+                int capacity = size * 2;
+                userId = Arrays.copyOf(userId, capacity);
+                firstName = Arrays.copyOf(firstName, capacity);
+                lastName = Arrays.copyOf(lastName, capacity);
+                email = Arrays.copyOf(email, capacity);
+            }
+            userId[size] = id;
+            firstName[size] = first;
+            lastName[size] = last;
+            email[size] = mail;
+            size++;
+        }
+
+        int indexOf(long id) {
+            return Arrays.binarySearch(userId, 0, size, id);
+        }
+    }
+
+    static final class OrderBuilder {
+        private int size;
+        private long[] orderId = new long[4096];
+        private long[] createdAt = new long[4096];
+        private int[] epochDay = new int[4096];
+        private long[] totalCents = new long[4096];
+        private byte[] status = new byte[4096];
+        private int[] userIndex = new int[4096];
+        private int[] itemsSold = new int[4096];
+        private String[] orderNumber = new String[4096];
+
+        // Rows must arrive in ascending createdAt order
+        void add(long id, long createdAtSeconds, long cents, byte statusCode, int user, int items, String number) {
+            if (size == orderId.length) {
+                int capacity = size * 2;
+                orderId = Arrays.copyOf(orderId, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                epochDay = Arrays.copyOf(epochDay, capacity);
+                totalCents = Arrays.copyOf(totalCents, capacity);
+                status = Arrays.copyOf(status, capacity);
+                userIndex = Arrays.copyOf(userIndex, capacity);
+                itemsSold = Arrays.copyOf(itemsSold, capacity);
+                orderNumber = Arrays.copyOf(orderNumber, capacity);
+            }
+            orderId[size] = id;
+            createdAt[size] = createdAtSeconds;
+            epochDay[size] = (int) Math.floorDiv(createdAtSeconds, 86_400L);
+            totalCents[size] = cents;
+            status[size] = statusCode;
+            userIndex[size] = user;
+            itemsSold[size] = items;
+            orderNumber[size] = number;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.ecommercebackend.service.export;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+public enum ExportFormat {
+    CSV("csv", new MediaType("text", "csv")),
+    NDJSON("ndjson", new MediaType("application", "x-ndjson")),
+    // Single JSON array, what the export endpoint returned before streaming
+    JSON("json", MediaType.APPLICATION_JSON);
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public static ExportFormat fromParam(String format) {
+        if (format == null || format.isBlank()) {
+            return JSON;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+
+    // Download response named like products_2024-01-31.csv
+    public ResponseEntity<StreamingResponseBody> toResponse(String baseName, StreamingResponseBody body) {
+        String fileName = baseName + "_" + LocalDate.now() + "." + extension;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(mediaType)
+                .body(body);
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.ecommercebackend.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows straight to the response stream, one row at a time, in the requested format.
+ * Values are written in column order; nothing is buffered beyond the writer's own buffer.
+ */
+public final class ExportWriter implements Closeable {
+
+    private final ExportFormat format;
+    private final String[] columns;
+    private final BufferedWriter csv;
+    private final JsonGenerator json;
+
+    public ExportWriter(ExportFormat format, String[] columns, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        if (format == ExportFormat.CSV) {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.json = null;
+        } else {
+            this.csv = null;
+            this.json = objectMapper.getFactory().createGenerator(out);
+            // NDJSON puts each object on its own line
+            this.json.setRootValueSeparator(null);
+        }
+    }
+
+    public void start() throws IOException {
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                csv.write(columns[i]);
+            }
+            csv.write("\r\n");
+        } else if (format == ExportFormat.JSON) {
+            json.writeStartArray();
+        }
+    }
+
+    public void row(Object[] values) throws IOException {
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                csv.write(csvCell(values[i]));
+            }
+            csv.write("\r\n");
+            return;
+        }
+
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            json.writeFieldName(columns[i]);
+            writeJsonValue(values[i]);
+        }
+        json.writeEndObject();
+        if (format == ExportFormat.NDJSON) {
+            json.writeRaw('\n');
+        }
+    }
+
+    public void finish() throws IOException {
+        if (format == ExportFormat.JSON) {
+            json.writeEndArray();
+        }
+        flush();
+    }
+
+    public void flush() throws IOException {
+        if (csv != null) {
+            csv.flush();
+        } else {
+            json.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The servlet container owns the response stream
+        flush();
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof BigDecimal decimal) {
+            json.writeNumber(decimal);
+        } else if (value instanceof Long || value instanceof Integer) {
+            json.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Boolean bool) {
+            json.writeBoolean(bool);
+        } else {
+            json.writeString(text(value));
+        }
+    }
+
+    private static String csvCell(Object value) {
+        String text = text(value);
+        if (text.isEmpty()) {
+            return text;
+        }
+        // Keep spreadsheet apps from evaluating user-supplied text as a formula
+        char first = text.charAt(0);
+        if ((first == '=' || first == '+' || first == '-' || first == '@') && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value.toString();
+    }
+}
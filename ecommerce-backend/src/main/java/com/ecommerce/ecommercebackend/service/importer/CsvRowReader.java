@@ -0,0 +1,97 @@
+package com.ecommerce.ecommercebackend.service.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields, doubled quotes and line breaks inside quotes.
+ * Reads one record at a time, so memory use is bounded by the longest record.
+ */
+final class CsvRowReader {
+
+    private final Reader reader;
+    private int pushedBack = -2;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Line on which the record last returned by next() started
+    long recordLine() {
+        return recordLine;
+    }
+
+    // Next record, or null at end of input. Blank lines are skipped.
+    List<String> next() throws IOException {
+        while (true) {
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean sawAny = false;
+
+            int c;
+            while ((c = read()) != -1) {
+                sawAny = true;
+                if (quoted) {
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            unread(following);
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    line++;
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+
+            if (!sawAny) {
+                return null;
+            }
+            fields.add(field.toString());
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            return fields;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,673 @@
+package com.ecommerce.ecommercebackend.service.importer;
+
+import com.ecommerce.ecommercebackend.dto.admin.ProductImportStatusDTO;
+import com.ecommerce.ecommercebackend.exception.ResourceNotFoundException;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.ecommerce.ecommercebackend.service.admin.DashboardStatsCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk product import from CSV or NDJSON, upserting by SKU.
+ * The upload is spooled to a temp file and processed in the background: rows are parsed one at a
+ * time, validated, and written with JDBC batch upserts, each batch in its own transaction. Memory
+ * use depends on the batch size, not the file size. Progress and the first failing rows can be
+ * polled by import id.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    // updated_at goes first: MySQL evaluates assignments left to right, so it still sees the old values
+    private static final String UPSERT_SQL =
+            "INSERT INTO products (sku, name, description, price, discount_price, stock_quantity, category_id, " +
+                    "image_url, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "updated_at = IF(name <=> VALUES(name) AND description <=> VALUES(description) " +
+                    "AND price <=> VALUES(price) AND discount_price <=> VALUES(discount_price) " +
+                    "AND stock_quantity <=> VALUES(stock_quantity) AND category_id <=> VALUES(category_id) " +
+                    "AND image_url <=> COALESCE(VALUES(image_url), image_url) AND is_active <=> VALUES(is_active), " +
+                    "updated_at, VALUES(updated_at)), " +
+                    "name = VALUES(name), description = VALUES(description), price = VALUES(price), " +
+                    "discount_price = VALUES(discount_price), stock_quantity = VALUES(stock_quantity), " +
+                    "category_id = VALUES(category_id), image_url = COALESCE(VALUES(image_url), image_url), " +
+                    "is_active = VALUES(is_active)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final Executor importExecutor;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    // Row errors kept per import; later ones are only counted
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    // Finished imports stay queryable this long
+    @Value("${app.import.retention-ms:3600000}")
+    private long retentionMs;
+
+    // Largest raw upload accepted; multipart uploads are capped by spring.servlet.multipart instead
+    @Value("${app.import.max-file-size:200MB}")
+    private DataSize maxFileSize;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                CategoryRepository categoryRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                DashboardStatsCache dashboardStatsCache,
+                                @Qualifier("importTaskExecutor") Executor importExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.dashboardStatsCache = dashboardStatsCache;
+        this.importExecutor = importExecutor;
+    }
+
+    // Multipart upload, within the global spring.servlet.multipart limits
+    public ProductImportStatusDTO startImport(MultipartFile file, String format) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return startImport(in, file.getOriginalFilename(), format, null);
+        }
+    }
+
+    /**
+     * Raw upload: the request body is the file itself. It is copied to a temp file as it arrives
+     * (the request ends before the import does) and rejected once it passes app.import.max-file-size.
+     */
+    public ProductImportStatusDTO startImport(InputStream body, String fileName, String format, String contentType)
+            throws IOException {
+        InputFormat inputFormat = InputFormat.resolve(format, fileName, contentType);
+        Path spooled = Files.createTempFile("product-import-", "." + inputFormat.name().toLowerCase(Locale.ROOT));
+        long size;
+        try {
+            size = spool(body, spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        if (size == 0) {
+            Files.deleteIfExists(spooled);
+            throw new IllegalArgumentException("Import file is empty");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), fileName, inputFormat, size);
+        jobs.put(job.id, job);
+
+        try {
+            importExecutor.execute(() -> run(job, spooled));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spooled);
+            throw new IllegalStateException("Too many imports in progress, try again later");
+        }
+
+        log.info("Product import {} queued: {} ({} bytes, {})", job.id, job.fileName, job.totalBytes, inputFormat);
+        return job.toDTO();
+    }
+
+    public ProductImportStatusDTO getImportStatus(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import not found with id: " + id);
+        }
+        return job.toDTO();
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void evictFinishedImports() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(job -> job.finishedAtMillis > 0 && job.finishedAtMillis < cutoff);
+    }
+
+    // ============= PIPELINE =============
+
+    private void run(ImportJob job, Path spooled) {
+        job.start();
+        try (CountingInputStream counting = new CountingInputStream(Files.newInputStream(spooled), job.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8), 64 * 1024)) {
+
+            skipByteOrderMark(reader);
+            Map<String, Long> categories = loadCategoryIndex();
+            List<ProductRow> batch = new ArrayList<>(batchSize);
+
+            RowSource source = job.format == InputFormat.CSV ? csvSource(reader) : ndjsonSource(reader);
+            RawRow raw;
+            while ((raw = source.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                if (raw.parseError() != null) {
+                    job.fail(raw.line(), null, raw.parseError(), maxErrors);
+                    continue;
+                }
+
+                ProductRow row;
+                try {
+                    row = validate(raw, categories);
+                } catch (IllegalArgumentException e) {
+                    job.fail(raw.line(), raw.values().get("sku"), e.getMessage(), maxErrors);
+                    continue;
+                }
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, job);
+                }
+            }
+            writeBatch(batch, job);
+            job.finish("COMPLETED", null);
+        } catch (Exception e) {
+            log.error("Product import {} failed: {}", job.id, e.getMessage(), e);
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}: {}", spooled, e.getMessage());
+            }
+        }
+
+        if (job.inserted.get() + job.updated.get() > 0) {
+            dashboardStatsCache.invalidate();
+        }
+        log.info("Product import {} {}: {} rows, {} inserted, {} updated, {} unchanged, {} failed",
+                job.id, job.state, job.rowsRead.get(), job.inserted.get(), job.updated.get(),
+                job.unchanged.get(), job.failed.get());
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvRowReader csv = new CsvRowReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file has no header row");
+        }
+        List<String> columns = header.stream().map(ProductImportService::normalizeColumn).toList();
+
+        return () -> {
+            List<String> fields = csv.next();
+            if (fields == null) {
+                return null;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+                values.put(columns.get(i), fields.get(i));
+            }
+            if (fields.size() > columns.size()) {
+                return new RawRow(csv.recordLine(), values, "Row has more fields than the header");
+            }
+            return new RawRow(csv.recordLine(), values, null);
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        TypeReference<Map<String, Object>> mapType = new TypeReference<>() {
+        };
+
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+
+            Map<String, String> values = new HashMap<>();
+            try {
+                Map<String, Object> json = objectMapper.readValue(line, mapType);
+                json.forEach((key, value) -> values.put(normalizeColumn(key), value != null ? value.toString() : null));
+            } catch (JsonProcessingException e) {
+                return new RawRow(lineNumber[0], values, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            return new RawRow(lineNumber[0], values, null);
+        };
+    }
+
+    static ProductRow validate(RawRow raw, Map<String, Long> categories) {
+        Map<String, String> values = raw.values();
+
+        // products.sku is VARCHAR(100)
+        String sku = required(values, "sku", 100);
+        String name = required(values, "name", 255);
+        BigDecimal price = decimal(values, "price");
+        if (price == null || price.signum() <= 0) {
+            throw new IllegalArgumentException("price must be greater than 0");
+        }
+        BigDecimal discountPrice = decimal(values, "discountprice");
+        if (discountPrice != null && (discountPrice.signum() < 0 || discountPrice.compareTo(price) > 0)) {
+            throw new IllegalArgumentException("discountPrice must be between 0 and price");
+        }
+
+        int stock = 0;
+        String stockText = firstPresent(values, "stockquantity", "stock");
+        if (stockText != null) {
+            try {
+                stock = Integer.parseInt(stockText);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("stockQuantity is not a whole number: " + stockText);
+            }
+            if (stock < 0) {
+                throw new IllegalArgumentException("stockQuantity cannot be negative");
+            }
+        }
+
+        Long categoryId = null;
+        String category = firstPresent(values, "category", "categoryslug");
+        if (category != null) {
+            categoryId = categories.get(category.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Unknown category: " + category);
+            }
+        }
+
+        boolean active = true;
+        String activeText = firstPresent(values, "isactive", "active");
+        if (activeText != null) {
+            active = switch (activeText.toLowerCase(Locale.ROOT)) {
+                case "true", "1", "yes", "y" -> true;
+                case "false", "0", "no", "n" -> false;
+                default -> throw new IllegalArgumentException("isActive must be true or false: " + activeText);
+            };
+        }
+
+        return new ProductRow(raw.line(), sku, name, blankToNull(values.get("description")), price, discountPrice,
+                stock, categoryId, blankToNull(values.get("imageurl")), active);
+    }
+
+    // ============= BATCH WRITES =============
+
+    private void writeBatch(List<ProductRow> batch, ImportJob job) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            List<Outcome> outcomes = transactionTemplate.execute(status -> {
+                List<Outcome> classified = classify(batch);
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch.stream().map(row -> args(row, now)).toList());
+                return classified;
+            });
+            outcomes.forEach(job::tally);
+        } catch (DataAccessException e) {
+            // Find the offending rows one by one; the rest of the batch still goes in
+            log.debug("Import batch failed, retrying rows individually: {}", e.getMessage());
+            for (ProductRow row : batch) {
+                try {
+                    Outcome outcome = transactionTemplate.execute(status -> {
+                        Outcome classified = classify(List.of(row)).get(0);
+                        jdbcTemplate.update(UPSERT_SQL, args(row, now));
+                        return classified;
+                    });
+                    job.tally(outcome);
+                } catch (DataAccessException rowError) {
+                    String message = rowError.getMostSpecificCause().getMessage();
+                    job.fail(row.line(), row.sku(), message, maxErrors);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Decides per row whether the upsert will insert, update or leave the product as it is, by
+     * reading the current values of the batch's SKUs first. The affected-row counts of
+     * ON DUPLICATE KEY UPDATE cannot be used for this: they depend on the driver's useAffectedRows
+     * setting, and with rewriteBatchedStatements every row reports SUCCESS_NO_INFO. The rows are
+     * locked until the batch commits, so another writer cannot change them in between.
+     */
+    private List<Outcome> classify(List<ProductRow> rows) {
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        Map<String, ProductRow> current = new HashMap<>();
+        jdbcTemplate.query("SELECT sku, name, description, price, discount_price, stock_quantity, category_id, " +
+                        "image_url, is_active FROM products WHERE sku IN (" + placeholders + ") FOR UPDATE",
+                rs -> {
+                    long categoryId = rs.getLong(7);
+                    Long category = rs.wasNull() ? null : categoryId;
+                    current.put(skuKey(rs.getString(1)), new ProductRow(0, rs.getString(1), rs.getString(2),
+                            rs.getString(3), rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getInt(6), category,
+                            rs.getString(8), rs.getBoolean(9)));
+                },
+                rows.stream().map(ProductRow::sku).toArray());
+        return classify(rows, current);
+    }
+
+    // Classifies rows against the stored values, keyed by skuKey; current is updated as rows are applied
+    static List<Outcome> classify(List<ProductRow> rows, Map<String, ProductRow> current) {
+        List<Outcome> outcomes = new ArrayList<>(rows.size());
+        for (ProductRow row : rows) {
+            ProductRow existing = current.get(skuKey(row.sku()));
+            // A missing image keeps the stored one, as in UPSERT_SQL
+            ProductRow written = existing != null && row.imageUrl() == null
+                    ? new ProductRow(row.line(), row.sku(), row.name(), row.description(), row.price(),
+                    row.discountPrice(), row.stockQuantity(), row.categoryId(), existing.imageUrl(), row.active())
+                    : row;
+            if (existing == null) {
+                outcomes.add(Outcome.INSERTED);
+            } else if (sameValues(existing, written)) {
+                outcomes.add(Outcome.UNCHANGED);
+            } else {
+                outcomes.add(Outcome.UPDATED);
+            }
+            // A SKU repeated later in the same batch is compared against this row's values
+            current.put(skuKey(row.sku()), written);
+        }
+        return outcomes;
+    }
+
+    // The sku column uses the table's case-insensitive collation, so "ab-1" and "AB-1" are one product
+    static String skuKey(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean sameValues(ProductRow a, ProductRow b) {
+        return Objects.equals(a.name(), b.name())
+                && Objects.equals(a.description(), b.description())
+                && sameAmount(a.price(), b.price())
+                && sameAmount(a.discountPrice(), b.discountPrice())
+                && a.stockQuantity() == b.stockQuantity()
+                && Objects.equals(a.categoryId(), b.categoryId())
+                && Objects.equals(a.imageUrl(), b.imageUrl())
+                && a.active() == b.active();
+    }
+
+    // Stored prices have scale 2, imported ones whatever the file used
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private Object[] args(ProductRow row, Timestamp now) {
+        return new Object[]{row.sku(), row.name(), row.description(), row.price(), row.discountPrice(),
+                row.stockQuantity(), row.categoryId(), row.imageUrl(), row.active(), now, now};
+    }
+
+    // ============= HELPERS =============
+
+    private long spool(InputStream body, Path target) throws IOException {
+        long limit = maxFileSize.toBytes();
+        long total = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                total += n;
+                if (total > limit) {
+                    throw new IllegalArgumentException("Import file is larger than " + maxFileSize);
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return total;
+    }
+
+    // Categories can be referenced by slug or by name, case-insensitively
+    private Map<String, Long> loadCategoryIndex() {
+        Map<String, Long> index = new HashMap<>();
+        for (Object[] row : categoryRepository.findSlugIndex()) {
+            Long id = (Long) row[0];
+            if (row[2] != null) {
+                index.putIfAbsent(((String) row[2]).toLowerCase(Locale.ROOT), id);
+            }
+            if (row[1] != null) {
+                index.put(((String) row[1]).toLowerCase(Locale.ROOT), id);
+            }
+        }
+        return index;
+    }
+
+    static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    // "Discount Price", "discount_price" and "discountPrice" all map to "discountprice"
+    private static String normalizeColumn(String column) {
+        return column == null ? "" : column.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String required(Map<String, String> values, String column, int maxLength) {
+        String value = blankToNull(values.get(column));
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static BigDecimal decimal(Map<String, String> values, String column) {
+        String value = blankToNull(values.get(column));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static String firstPresent(Map<String, String> values, String... columns) {
+        for (String column : columns) {
+            String value = blankToNull(values.get(column));
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private enum InputFormat {
+        CSV, NDJSON;
+
+        static InputFormat resolve(String format, String fileName, String contentType) {
+            String hint = format;
+            if (hint == null || hint.isBlank()) {
+                String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+                String lower = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+                hint = type.contains("ndjson") || lower.endsWith(".ndjson") || lower.endsWith(".jsonl") ? "ndjson" : "csv";
+            }
+            return switch (hint.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl" -> NDJSON;
+                default -> throw new IllegalArgumentException("Unsupported import format: " + format);
+            };
+        }
+    }
+
+    enum Outcome {
+        INSERTED, UPDATED, UNCHANGED
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        RawRow next() throws IOException;
+    }
+
+    record RawRow(long line, Map<String, String> values, String parseError) {
+    }
+
+    record ProductRow(long line, String sku, String name, String description, BigDecimal price,
+                      BigDecimal discountPrice, int stockQuantity, Long categoryId, String imageUrl,
+                      boolean active) {
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    private static final class ImportJob {
+        private final String id;
+        private final String fileName;
+        private final InputFormat format;
+        private final long totalBytes;
+
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ProductImportStatusDTO.RowError> errors = new ArrayList<>();
+
+        private volatile String state = "QUEUED";
+        private volatile String message;
+        private volatile long startedAtMillis;
+        private volatile long finishedAtMillis;
+
+        ImportJob(String id, String fileName, InputFormat format, long totalBytes) {
+            this.id = id;
+            this.fileName = fileName;
+            this.format = format;
+            this.totalBytes = totalBytes;
+        }
+
+        void start() {
+            startedAtMillis = System.currentTimeMillis();
+            state = "RUNNING";
+        }
+
+        void finish(String finalState, String finalMessage) {
+            message = finalMessage;
+            finishedAtMillis = System.currentTimeMillis();
+            state = finalState;
+        }
+
+        void tally(Outcome outcome) {
+            switch (outcome) {
+                case INSERTED -> inserted.incrementAndGet();
+                case UPDATED -> updated.incrementAndGet();
+                case UNCHANGED -> unchanged.incrementAndGet();
+            }
+        }
+
+        void fail(long line, String sku, String error, int maxErrors) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ProductImportStatusDTO.RowError(line, sku, error));
+                }
+            }
+        }
+
+        ProductImportStatusDTO toDTO() {
+            ProductImportStatusDTO dto = new ProductImportStatusDTO();
+            dto.setId(id);
+            dto.setFileName(fileName);
+            dto.setFormat(format.name());
+            dto.setState(state);
+            dto.setMessage(message);
+            dto.setTotalBytes(totalBytes);
+            dto.setBytesRead(bytesRead.get());
+            dto.setPercentComplete(totalBytes == 0 ? 100 : (int) Math.min(100, bytesRead.get() * 100 / totalBytes));
+            dto.setRowsRead(rowsRead.get());
+            dto.setInserted(inserted.get());
+            dto.setUpdated(updated.get());
+            dto.setUnchanged(unchanged.get());
+            dto.setFailed(failed.get());
+            dto.setStartedAt(format(startedAtMillis));
+            dto.setFinishedAt(format(finishedAtMillis));
+            if (startedAtMillis > 0) {
+                long end = finishedAtMillis > 0 ? finishedAtMillis : System.currentTimeMillis();
+                dto.setDurationMs(end - startedAtMillis);
+            }
+            synchronized (errors) {
+                dto.setErrors(new ArrayList<>(errors));
+                dto.setErrorsTruncated(failed.get() > errors.size());
+            }
+            return dto;
+        }
+
+        private static String format(long millis) {
+            if (millis == 0) {
+                return null;
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault())
+                    .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.ecommerce.ecommercebackend.service.order;
+
+import com.ecommerce.ecommercebackend.dto.AddressDTO;
+import com.ecommerce.ecommercebackend.dto.OrderDTO;
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.repository.OrderItemRepository;
+import com.ecommerce.ecommercebackend.service.EmailService;
+import com.ecommerce.ecommercebackend.service.PopularProductsTracker;
+import com.ecommerce.ecommercebackend.service.RealtimeSalesMetrics;
+import com.ecommerce.ecommercebackend.service.SalesRollupService;
+import com.ecommerce.ecommercebackend.service.search.OrderSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Runs order status changes. The lifecycle itself lives with the entity: the transition table on
+ * {@link Order.OrderStatus}, and the guards and field updates in {@link Order#transitionTo}. This
+ * class applies a change and runs the hooks for entering the new status:
+ * <ul>
+ *     <li>every change: a status history row, the search index, the sales rollup, and the
+ *     leaderboard / real-time counters when an order enters or leaves CANCELLED</li>
+ *     <li>CANCELLED: the items' stock goes back to their products</li>
+ *     <li>SHIPPED / DELIVERED: notification emails</li>
+ * </ul>
+ * Hooks take many orders at once so bulk changes stay set-based. Stock is collected over the
+ * transaction and restored with one batched statement just before commit, in product id order;
+ * emails go out after commit, so a rolled-back change neither restocks nor notifies.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderStateMachine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderItemRepository orderItemRepository;
+    private final EmailService emailService;
+    private final SalesRollupService salesRollupService;
+    private final PopularProductsTracker popularProductsTracker;
+    private final RealtimeSalesMetrics realtimeSalesMetrics;
+    private final OrderStatusHistoryRecorder statusHistoryRecorder;
+    private final OrderSearchIndex orderSearchIndex;
+
+    // Emails per background send task
+    @Value("${app.orders.bulk-transition.email-batch-size:500}")
+    private int emailBatchSize;
+
+    /**
+     * Validates and applies a transition to a loaded order, then runs the entry hooks. The caller
+     * saves the order. Returns the previous status; nothing happens when the status does not change.
+     */
+    public Order.OrderStatus transition(Order order, Order.OrderStatus to, String note) {
+        Order.OrderStatus from = order.transitionTo(to);
+        if (from != order.getStatus()) {
+            entered(List.of(order), Map.of(order.getId(), from), note);
+        }
+        return from;
+    }
+
+    /**
+     * Entry hooks for orders whose status was changed by the caller, e.g. with a set-based UPDATE.
+     * Orders must already carry their new status. Returns the stock this call restores per product.
+     */
+    public Map<Long, Long> entered(List<Order> orders, Map<Long, Order.OrderStatus> previousStatuses, String note) {
+        statusHistoryRecorder.recordAll(orders, previousStatuses, note);
+        orderSearchIndex.onStatusChanged(orders);
+        salesRollupService.recordStatusChanges(orders, previousStatuses);
+        trackCancellationChanges(orders, previousStatuses);
+
+        List<Long> cancelled = new ArrayList<>();
+        PendingEffects pending = pendingEffects();
+        for (Order order : orders) {
+            if (previousStatuses.get(order.getId()) == order.getStatus()) {
+                continue;
+            }
+            switch (order.getStatus()) {
+                case CANCELLED -> cancelled.add(order.getId());
+                case SHIPPED -> pending.shipped.add(order.getId());
+                case DELIVERED -> pending.delivered.add(order.getId());
+                default -> {
+                }
+            }
+        }
+        Map<Long, Long> restock = stockToRestore(cancelled);
+        restock.forEach((productId, units) -> pending.restock.merge(productId, units, Long::sum));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.beforeCommit(false);
+            pending.afterCommit();
+        }
+        return restock;
+    }
+
+    // ============= HELPERS =============
+
+    // Orders entering CANCELLED leave the popular-products leaderboard (and count as real-time
+    // cancellations), orders leaving it return
+    private void trackCancellationChanges(List<Order> orders, Map<Long, Order.OrderStatus> previousStatuses) {
+        List<Long> cancelledIds = new ArrayList<>();
+        List<Long> reinstatedIds = new ArrayList<>();
+        for (Order order : orders) {
+            Order.OrderStatus previous = previousStatuses.get(order.getId());
+            boolean wasCancelled = previous == Order.OrderStatus.CANCELLED;
+            boolean isCancelled = order.getStatus() == Order.OrderStatus.CANCELLED;
+            if (!wasCancelled && isCancelled) {
+                cancelledIds.add(order.getId());
+                realtimeSalesMetrics.recordOrderCancelled(order);
+            } else if (wasCancelled && !isCancelled) {
+                reinstatedIds.add(order.getId());
+            }
+        }
+        if (!cancelledIds.isEmpty()) {
+            popularProductsTracker.recordCancellation(orderItemRepository.findByOrderIdIn(cancelledIds));
+        }
+        if (!reinstatedIds.isEmpty()) {
+            popularProductsTracker.recordSale(orderItemRepository.findByOrderIdIn(reinstatedIds));
+        }
+    }
+
+    private Map<Long, Long> stockToRestore(List<Long> orderIds) {
+        Map<Long, Long> restock = new TreeMap<>();
+        if (orderIds.isEmpty()) {
+            return restock;
+        }
+        jdbcTemplate.query(
+                "SELECT product_id, SUM(quantity) FROM order_items " +
+                        "WHERE order_id IN (" + placeholders(orderIds.size()) + ") AND product_id IS NOT NULL " +
+                        "GROUP BY product_id",
+                rs -> {
+                    restock.merge(rs.getLong(1), rs.getLong(2), Long::sum);
+                }, orderIds.toArray());
+        return restock;
+    }
+
+    private void restoreStock(Map<Long, Long> restock) {
+        if (restock.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(restock.size());
+        long units = 0;
+        for (Map.Entry<Long, Long> entry : restock.entrySet()) {
+            rows.add(new Object[]{entry.getValue(), entry.getKey()});
+            units += entry.getValue();
+        }
+        jdbcTemplate.batchUpdate("UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?", rows);
+        log.info("Restored {} units across {} products for cancelled orders", units, restock.size());
+    }
+
+    private void sendNotifications(Order.OrderStatus status, List<Long> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += emailBatchSize) {
+            List<Long> ids = orderIds.subList(from, Math.min(from + emailBatchSize, orderIds.size()));
+            try {
+                List<OrderDTO> batch = loadNotifications(ids);
+                if (status == Order.OrderStatus.SHIPPED) {
+                    emailService.sendOrderShippedEmails(batch);
+                } else {
+                    emailService.sendOrderDeliveredEmails(batch);
+                }
+            } catch (Exception e) {
+                log.error("Failed to queue {} {} emails: {}", ids.size(), status, e.getMessage());
+            }
+        }
+    }
+
+    // Just the fields the shipped/delivered templates use
+    private List<OrderDTO> loadNotifications(List<Long> orderIds) {
+        return jdbcTemplate.query(
+                "SELECT o.id, o.order_number, o.created_at, o.tracking_number, u.email, u.first_name, u.last_name, " +
+                        "o.shipping_street, o.shipping_city, o.shipping_state, o.shipping_zip_code, " +
+                        "o.shipping_country, o.shipping_phone, o.shipping_recipient_name " +
+                        "FROM orders o JOIN users u ON u.id = o.user_id " +
+                        "WHERE o.id IN (" + placeholders(orderIds.size()) + ")",
+                (rs, rowNum) -> {
+                    OrderDTO dto = new OrderDTO();
+                    dto.setId(rs.getLong("id"));
+                    dto.setOrderNumber(rs.getString("order_number"));
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    dto.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+                    dto.setTrackingNumber(rs.getString("tracking_number"));
+                    dto.setUserEmail(rs.getString("email"));
+                    dto.setUserName((Objects.toString(rs.getString("first_name"), "") + " " +
+                            Objects.toString(rs.getString("last_name"), "")).trim());
+
+                    AddressDTO address = new AddressDTO();
+                    address.setStreet(rs.getString("shipping_street"));
+                    address.setCity(rs.getString("shipping_city"));
+                    address.setState(rs.getString("shipping_state"));
+                    address.setZipCode(rs.getString("shipping_zip_code"));
+                    address.setCountry(rs.getString("shipping_country"));
+                    address.setPhone(rs.getString("shipping_phone"));
+                    address.setRecipientName(rs.getString("shipping_recipient_name"));
+                    dto.setShippingAddress(address);
+                    return dto;
+                }, orderIds.toArray());
+    }
+
+    // One per transaction, registered on first use
+    private PendingEffects pendingEffects() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingEffects();
+        }
+        PendingEffects pending = (PendingEffects) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEffects();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private final class PendingEffects implements TransactionSynchronization {
+        // Sorted so row locks on products are always taken in the same order
+        private final Map<Long, Long> restock = new TreeMap<>();
+        private final List<Long> shipped = new ArrayList<>();
+        private final List<Long> delivered = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            restoreStock(restock);
+        }
+
+        @Override
+        public void afterCommit() {
+            sendNotifications(Order.OrderStatus.SHIPPED, shipped);
+            sendNotifications(Order.OrderStatus.DELIVERED, delivered);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (TransactionSynchronizationManager.hasResource(OrderStateMachine.this)) {
+                TransactionSynchronizationManager.unbindResource(OrderStateMachine.this);
+            }
+        }
+    }
+}
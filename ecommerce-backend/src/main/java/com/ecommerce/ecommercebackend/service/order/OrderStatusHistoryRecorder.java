@@ -0,0 +1,85 @@
+package com.ecommerce.ecommercebackend.service.order;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.entity.OrderStatusHistory;
+import com.ecommerce.ecommercebackend.security.CustomUserDetails;
+import com.ecommerce.ecommercebackend.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends rows to order_status_history. Writes go through JDBC batch inserts in the caller's
+ * transaction, so a status change and its history row commit or roll back together.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderStatusHistoryRecorder {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_status_history (order_id, from_status, status, notes, created_by, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthService authService;
+
+    public void record(Order order, Order.OrderStatus fromStatus, String notes) {
+        if (fromStatus == order.getStatus()) {
+            return;
+        }
+        insert(List.of(entry(order.getId(), fromStatus, order.getStatus(), notes, currentUserId(), LocalDateTime.now())));
+    }
+
+    // Orders must already carry their new status; unchanged ones are skipped
+    public void recordAll(Collection<Order> orders, Map<Long, Order.OrderStatus> previousStatuses, String notes) {
+        Long actor = currentUserId();
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusHistory> entries = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Order.OrderStatus previous = previousStatuses.get(order.getId());
+            if (previous != order.getStatus()) {
+                entries.add(entry(order.getId(), previous, order.getStatus(), notes, actor, now));
+            }
+        }
+        insert(entries);
+    }
+
+    private void insert(List<OrderStatusHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (OrderStatusHistory entry : entries) {
+            rows.add(new Object[]{
+                    entry.getOrderId(),
+                    entry.getFromStatus() != null ? entry.getFromStatus().name() : null,
+                    entry.getStatus().name(),
+                    entry.getNotes(),
+                    entry.getCreatedBy(),
+                    Timestamp.valueOf(entry.getCreatedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        log.debug("Recorded {} order status changes", rows.size());
+    }
+
+    private static OrderStatusHistory entry(Long orderId, Order.OrderStatus from, Order.OrderStatus to,
+                                            String notes, Long actor, LocalDateTime at) {
+        return new OrderStatusHistory(null, orderId, from, to, notes, actor, at);
+    }
+
+    private Long currentUserId() {
+        return authService.findCurrentUserDetails().map(CustomUserDetails::getUserId).orElse(null);
+    }
+}
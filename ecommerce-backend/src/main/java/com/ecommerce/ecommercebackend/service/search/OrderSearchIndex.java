@@ -0,0 +1,189 @@
+package com.ecommerce.ecommercebackend.service.search;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Admin order search without joining and scanning users: order numbers sit in a trigram index,
+ * customer fields are matched through {@link UserSearchIndex} and expanded to that customer's
+ * orders, and each order's current status is kept alongside for filtering. A search resolves to
+ * the full list of matching order ids, newest first, which the caller pages through.
+ */
+@Component
+@Slf4j
+public class OrderSearchIndex {
+
+    private final JdbcTemplate streamingJdbc;
+    private final UserSearchIndex userSearchIndex;
+
+    private volatile Snapshot snapshot;
+    // Updates that arrive while a rebuild runs, replayed onto the new snapshot before it is swapped in
+    private List<Consumer<Snapshot>> journal;
+
+    public OrderSearchIndex(DataSource dataSource, UserSearchIndex userSearchIndex) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        // MySQL Connector/J streams rows one at a time only with this fetch size
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE);
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    public boolean isReady() {
+        return snapshot != null && userSearchIndex.isReady();
+    }
+
+    /**
+     * Ids of orders whose number, or whose customer's name, email or phone, contains the query,
+     * optionally limited to one status. Highest id (newest) first.
+     */
+    public long[] search(String query, Order.OrderStatus status) {
+        Snapshot current = snapshot;
+        long[] byNumber = current.numbers.search(query);
+        long[] customers = userSearchIndex.search(query);
+
+        long[] ids = Arrays.copyOf(byNumber, byNumber.length);
+        int count = ids.length;
+        for (long userId : customers) {
+            Set<Long> orders = current.ordersByUser.get(userId);
+            if (orders == null) {
+                continue;
+            }
+            for (Long orderId : orders) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(16, ids.length * 2));
+                }
+                ids[count++] = orderId;
+            }
+        }
+
+        Arrays.sort(ids, 0, count);
+        long[] result = new long[count];
+        int size = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            long id = ids[i];
+            if (size > 0 && result[size - 1] == id) {
+                continue;
+            }
+            if (status != null && current.statuses.get(id) != status) {
+                continue;
+            }
+            result[size++] = id;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public void onOrderPlaced(Order order) {
+        long id = order.getId();
+        String orderNumber = order.getOrderNumber();
+        Long userId = order.getUser() != null ? order.getUser().getId() : null;
+        Order.OrderStatus status = order.getStatus();
+        afterCommit(target -> target.put(id, orderNumber, userId, status));
+    }
+
+    // Orders must already carry their new status
+    public void onStatusChanged(Collection<Order> orders) {
+        Map<Long, Order.OrderStatus> changes = new ConcurrentHashMap<>();
+        for (Order order : orders) {
+            changes.put(order.getId(), order.getStatus());
+        }
+        afterCommit(target -> changes.forEach((id, status) -> {
+            if (target.statuses.containsKey(id)) {
+                target.statuses.put(id, status);
+            }
+        }));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-ms:3600000}", initialDelayString = "${app.search.rebuild-ms:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            if (journal != null) {
+                return;
+            }
+            journal = new ArrayList<>();
+        }
+        Snapshot fresh = new Snapshot();
+        try {
+            long startedAt = System.currentTimeMillis();
+            streamingJdbc.query("SELECT id, order_number, user_id, status FROM orders", rs -> {
+                long userId = rs.getLong(3);
+                fresh.put(rs.getLong(1), rs.getString(2), rs.wasNull() ? null : userId,
+                        Order.OrderStatus.valueOf(rs.getString(4)));
+            });
+            fresh.numbers.seal();
+            synchronized (this) {
+                journal.forEach(update -> update.accept(fresh));
+                snapshot = fresh;
+            }
+            log.info("Order search index built: {} orders in {} ms",
+                    fresh.statuses.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("Failed to build order search index: {}", e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    // ============= HELPERS =============
+
+    private void apply(Consumer<Snapshot> update) {
+        synchronized (this) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                update.accept(current);
+            }
+            if (journal != null) {
+                journal.add(update);
+            }
+        }
+    }
+
+    private void afterCommit(Consumer<Snapshot> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    private static final class Snapshot {
+        final TrigramIndex numbers = new TrigramIndex();
+        final Map<Long, Set<Long>> ordersByUser = new ConcurrentHashMap<>();
+        final Map<Long, Order.OrderStatus> statuses = new ConcurrentHashMap<>();
+
+        void put(long id, String orderNumber, Long userId, Order.OrderStatus status) {
+            numbers.put(id, orderNumber);
+            statuses.put(id, status);
+            if (userId != null) {
+                ordersByUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+    }
+}
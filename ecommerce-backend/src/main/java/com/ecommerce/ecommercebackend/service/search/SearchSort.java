@@ -0,0 +1,51 @@
+package com.ecommerce.ecommercebackend.service.search;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Which requested page sorts the search indexes can serve. They hand back ids highest first, and
+ * ids grow with creation time, so an unsorted request or one ordered by id or creation time (either
+ * direction) is a walk over that array; any other order has to go to the database.
+ */
+public final class SearchSort {
+
+    private static final Set<String> CREATION_ORDER = Set.of("id", "createdAt");
+
+    private SearchSort() {
+    }
+
+    /**
+     * Direction to walk the index's ids in for this sort, or null when the index cannot produce it.
+     */
+    public static Sort.Direction idDirection(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.Direction.DESC;
+        }
+        Sort.Direction direction = null;
+        for (Sort.Order order : sort) {
+            if (!CREATION_ORDER.contains(order.getProperty())
+                    || (direction != null && direction != order.getDirection())) {
+                return null;
+            }
+            direction = order.getDirection();
+        }
+        return direction;
+    }
+
+    /**
+     * The page of ids for offset/size, in the given direction over a descending id array.
+     */
+    public static long[] page(long[] descendingIds, long offset, int size, Sort.Direction direction) {
+        int from = (int) Math.min(offset, descendingIds.length);
+        int to = Math.min(from + size, descendingIds.length);
+        long[] page = new long[to - from];
+        for (int i = from; i < to; i++) {
+            page[i - from] = direction == Sort.Direction.DESC
+                    ? descendingIds[i]
+                    : descendingIds[descendingIds.length - 1 - i];
+        }
+        return page;
+    }
+}
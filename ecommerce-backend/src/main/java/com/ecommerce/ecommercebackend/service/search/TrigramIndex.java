@@ -0,0 +1,297 @@
+package com.ecommerce.ecommercebackend.service.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory substring index: every document is a few short text fields under a numeric id, and
+ * each lower-cased three-character window points back at the ids containing it. A query of three
+ * or more characters only looks at the ids under its rarest trigram and confirms each with a
+ * plain substring check, so results match {@code LIKE '%q%'} exactly. Shorter queries scan the
+ * stored documents, which is still a pass over memory rather than a table.
+ * <p>
+ * The index is filled with {@link #put} and then {@link #seal sealed}, which lays it out as
+ * primitive arrays: trigram keys sorted for binary search, and each key's ids as one ascending
+ * run in a shared {@code long[]}. Changes made after sealing go to a small overlay that searches
+ * scan directly; the owner rebuilds and swaps in a new index from time to time, which folds the
+ * overlay back in. Writes are serialised; reads run concurrently with them and may briefly miss
+ * an id that is being re-indexed.
+ */
+public final class TrigramIndex {
+
+    // Joins a document's fields so a match cannot span two of them
+    private static final char FIELD_SEPARATOR = '\u0001';
+    private static final long[] NONE = new long[0];
+
+    // Documents added before seal(), in arrival order; a later entry for the same id wins
+    private long[] loadedIds = new long[1024];
+    private String[] loadedDocuments = new String[1024];
+    private int loadedCount;
+    private boolean sealed;
+
+    // Sealed layout. Ids are ascending; the ids under keys[k] are postings[starts[k] .. starts[k + 1])
+    private volatile Layout layout = new Layout(NONE, new String[0], NONE, new int[]{0}, NONE);
+
+    // Changes since the layout was built. An id in either set shadows its entry in the layout
+    private final Map<Long, String> changed = new ConcurrentHashMap<>();
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+    private volatile int size;
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized void put(long id, String... fields) {
+        String document = document(fields);
+        if (!sealed) {
+            if (loadedCount == loadedIds.length) {
+                loadedIds = Arrays.copyOf(loadedIds, loadedCount * 2);
+                loadedDocuments = Arrays.copyOf(loadedDocuments, loadedCount * 2);
+            }
+            loadedIds[loadedCount] = id;
+            loadedDocuments[loadedCount++] = document;
+            removed.remove(id);
+            return;
+        }
+        if (!contains(id)) {
+            size++;
+        }
+        removed.remove(id);
+        changed.put(id, document);
+    }
+
+    public synchronized void remove(long id) {
+        if (!sealed) {
+            removed.add(id);
+            return;
+        }
+        if (contains(id)) {
+            size--;
+        }
+        changed.remove(id);
+        if (layout.indexOf(id) >= 0) {
+            removed.add(id);
+        }
+    }
+
+    /**
+     * Lays out everything added so far as sorted primitive arrays. Called once, after loading and
+     * before the index is published; later puts and removes go to the overlay.
+     */
+    public synchronized void seal() {
+        if (sealed) {
+            return;
+        }
+        sealed = true;
+
+        // Order by id, keeping the last document for a repeated id and dropping removed ones. Rows
+        // streamed by primary key usually arrive in order already, which skips the sort
+        int[] order = new int[loadedCount];
+        boolean ascending = true;
+        for (int i = 0; i < loadedCount; i++) {
+            order[i] = i;
+            ascending &= i == 0 || loadedIds[i - 1] < loadedIds[i];
+        }
+        if (!ascending) {
+            long[] byId = loadedIds;
+            order = Arrays.stream(order).boxed()
+                    .sorted((a, b) -> byId[a] != byId[b] ? Long.compare(byId[a], byId[b]) : Integer.compare(a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        long[] ids = new long[loadedCount];
+        String[] documents = new String[loadedCount];
+        int count = 0;
+        for (int i = 0; i < order.length; i++) {
+            int at = order[i];
+            if (i + 1 < order.length && loadedIds[order[i + 1]] == loadedIds[at]) {
+                continue;
+            }
+            if (removed.contains(loadedIds[at])) {
+                continue;
+            }
+            ids[count] = loadedIds[at];
+            documents[count++] = loadedDocuments[at];
+        }
+        ids = Arrays.copyOf(ids, count);
+        documents = Arrays.copyOf(documents, count);
+        loadedIds = null;
+        loadedDocuments = null;
+        removed.clear();
+
+        // Pass 1: how many documents contain each trigram
+        Map<Long, int[]> counts = new HashMap<>();
+        for (String document : documents) {
+            for (long key : distinctKeys(document)) {
+                counts.computeIfAbsent(key, k -> new int[1])[0]++;
+            }
+        }
+        long[] keys = new long[counts.size()];
+        int k = 0;
+        for (Long key : counts.keySet()) {
+            keys[k++] = key;
+        }
+        Arrays.sort(keys);
+        int[] starts = new int[keys.length + 1];
+        for (int i = 0; i < keys.length; i++) {
+            starts[i + 1] = starts[i] + counts.get(keys[i])[0];
+        }
+
+        // Pass 2: documents are visited in id order, so every run comes out sorted
+        long[] postings = new long[starts[keys.length]];
+        int[] next = Arrays.copyOf(starts, keys.length);
+        for (int d = 0; d < count; d++) {
+            for (long key : distinctKeys(documents[d])) {
+                postings[next[Arrays.binarySearch(keys, key)]++] = ids[d];
+            }
+        }
+
+        layout = new Layout(ids, documents, keys, starts, postings);
+        size = count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ids of documents with a field containing the query, highest id first. Blank queries match
+     * nothing.
+     */
+    public long[] search(String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return NONE;
+        }
+
+        Layout current = layout;
+        long[] hits = new long[16];
+        int count = 0;
+        if (q.length() < 3) {
+            for (int i = 0; i < current.ids.length; i++) {
+                if (current.documents[i].contains(q) && !shadowed(current.ids[i])) {
+                    hits = append(hits, count++, current.ids[i]);
+                }
+            }
+        } else {
+            int rarest = current.rarestKey(q);
+            if (rarest >= 0) {
+                for (int p = current.starts[rarest]; p < current.starts[rarest + 1]; p++) {
+                    long id = current.postings[p];
+                    int at = current.indexOf(id);
+                    if (current.documents[at].contains(q) && !shadowed(id)) {
+                        hits = append(hits, count++, id);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<Long, String> entry : changed.entrySet()) {
+            if (entry.getValue().contains(q)) {
+                hits = append(hits, count++, entry.getKey());
+            }
+        }
+
+        long[] result = Arrays.copyOf(hits, count);
+        Arrays.sort(result);
+        reverse(result);
+        return result;
+    }
+
+    // ============= HELPERS =============
+
+    private boolean contains(long id) {
+        return changed.containsKey(id) || (layout.indexOf(id) >= 0 && !removed.contains(id));
+    }
+
+    private boolean shadowed(long id) {
+        return (!changed.isEmpty() && changed.containsKey(id)) || (!removed.isEmpty() && removed.contains(id));
+    }
+
+    private static String document(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            String normalized = normalize(field);
+            if (!normalized.isEmpty()) {
+                if (!text.isEmpty()) {
+                    text.append(FIELD_SEPARATOR);
+                }
+                text.append(normalized);
+            }
+        }
+        return text.toString();
+    }
+
+    private static long[] distinctKeys(String document) {
+        long[] keys = new long[Math.max(0, document.length() - 2)];
+        int count = 0;
+        for (int i = 0; i + 3 <= document.length(); i++) {
+            long key = key(document, i);
+            if (key >= 0) {
+                keys[count++] = key;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    // Three UTF-16 chars packed into one long; -1 when the window crosses a field boundary
+    private static long key(String text, int offset) {
+        char a = text.charAt(offset);
+        char b = text.charAt(offset + 1);
+        char c = text.charAt(offset + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+            return -1;
+        }
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static long[] append(long[] array, int index, long value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    private static void reverse(long[] array) {
+        for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+            long tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    private record Layout(long[] ids, String[] documents, long[] keys, int[] starts, long[] postings) {
+
+        int indexOf(long id) {
+            int at = Arrays.binarySearch(ids, id);
+            return at >= 0 ? at : -1;
+        }
+
+        // Slot of the query trigram with the fewest ids, -1 when some trigram has none
+        int rarestKey(String q) {
+            int rarest = -1;
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                long key = key(q, i);
+                int slot = key >= 0 ? Arrays.binarySearch(keys, key) : -1;
+                if (slot < 0) {
+                    return -1;
+                }
+                if (rarest < 0 || starts[slot + 1] - starts[slot] < starts[rarest + 1] - starts[rarest]) {
+                    rarest = slot;
+                }
+            }
+            return rarest;
+        }
+    }
+}
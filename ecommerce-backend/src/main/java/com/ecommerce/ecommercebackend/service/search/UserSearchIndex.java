@@ -0,0 +1,243 @@
+package com.ecommerce.ecommercebackend.service.search;
+
+import com.ecommerce.ecommercebackend.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Substring index over customer names, email and phone, used by admin search in place of
+ * {@code LIKE '%q%'} scans over users. A query that is a complete email address or phone number
+ * of a known user is answered from exact-match maps with just those users, rather than everyone
+ * whose address merely contains it; anything else, including an address or number that matches no
+ * user exactly, goes through the trigram index with LIKE semantics.
+ * Loaded at startup, kept current by the services that write users, and rebuilt periodically to
+ * pick up changes made outside the application.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final Pattern PHONE_QUERY = Pattern.compile("[+\\d\\s().-]+");
+    // Fewer digits than this is treated as a fragment, not a phone number
+    private static final int MIN_PHONE_DIGITS = 7;
+
+    private final JdbcTemplate streamingJdbc;
+
+    private volatile Snapshot snapshot;
+    // Updates that arrive while a rebuild runs, replayed onto the new snapshot before it is swapped in
+    private List<Consumer<Snapshot>> journal;
+
+    public UserSearchIndex(DataSource dataSource) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        // MySQL Connector/J streams rows one at a time only with this fetch size
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ids of users whose name, full name, email or phone contains the query, highest id first.
+     * When the query is a whole email address or phone number on file, only its exact owners.
+     */
+    public long[] search(String query) {
+        return search(query, null);
+    }
+
+    /**
+     * As {@link #search(String)}, optionally limited to one role.
+     */
+    public long[] search(String query, User.Role role) {
+        Snapshot current = snapshot;
+        return current != null ? current.search(query, role) : new long[0];
+    }
+
+    public void index(User user) {
+        long id = user.getId();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        String email = user.getEmail();
+        String phone = user.getPhone();
+        User.Role role = user.getRole();
+        afterCommit(target -> target.put(id, firstName, lastName, email, phone, role));
+    }
+
+    public void remove(Long userId) {
+        afterCommit(target -> target.remove(userId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-ms:3600000}", initialDelayString = "${app.search.rebuild-ms:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            if (journal != null) {
+                return;
+            }
+            journal = new ArrayList<>();
+        }
+        Snapshot fresh = new Snapshot();
+        try {
+            long startedAt = System.currentTimeMillis();
+            streamingJdbc.query("SELECT id, first_name, last_name, email, phone, role FROM users", rs -> {
+                String role = rs.getString(6);
+                fresh.put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                        role != null ? User.Role.valueOf(role) : User.Role.CUSTOMER);
+            });
+            fresh.text.seal();
+            synchronized (this) {
+                journal.forEach(update -> update.accept(fresh));
+                snapshot = fresh;
+            }
+            log.info("User search index built: {} users in {} ms", fresh.text.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("Failed to build user search index: {}", e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    // ============= HELPERS =============
+
+    static String digits(String phone) {
+        return phone == null ? null : phone.replaceAll("\\D", "");
+    }
+
+    private void apply(Consumer<Snapshot> update) {
+        synchronized (this) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                update.accept(current);
+            }
+            if (journal != null) {
+                journal.add(update);
+            }
+        }
+    }
+
+    private void afterCommit(Consumer<Snapshot> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    private record Entry(String email, String phoneDigits, User.Role role) {
+    }
+
+    static final class Snapshot {
+        final TrigramIndex text = new TrigramIndex();
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        final Map<String, Long> emails = new ConcurrentHashMap<>();
+        // Phone numbers are not unique, several accounts may share one
+        final Map<String, Set<Long>> phones = new ConcurrentHashMap<>();
+
+        synchronized void put(long id, String firstName, String lastName, String email, String phone, User.Role role) {
+            remove(id);
+            String fullName = (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
+            String phoneDigits = digits(phone);
+            text.put(id, firstName, lastName, fullName, email, phone, phoneDigits);
+
+            String normalizedEmail = TrigramIndex.normalize(email);
+            entries.put(id, new Entry(normalizedEmail, phoneDigits, role));
+            if (!normalizedEmail.isEmpty()) {
+                emails.put(normalizedEmail, id);
+            }
+            if (phoneDigits != null && !phoneDigits.isEmpty()) {
+                phones.computeIfAbsent(phoneDigits, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        synchronized void remove(long id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            text.remove(id);
+            emails.remove(previous.email(), id);
+            if (previous.phoneDigits() != null) {
+                Set<Long> shared = phones.get(previous.phoneDigits());
+                if (shared != null) {
+                    shared.remove(id);
+                    if (shared.isEmpty()) {
+                        phones.remove(previous.phoneDigits());
+                    }
+                }
+            }
+        }
+
+        // The role filter applies to the exact matches too: an address owned by a user of another
+        // role is a miss, and the query falls through to the substring search
+        long[] search(String query, User.Role role) {
+            long[] ids = withRole(exactMatches(query), role);
+            if (ids == null || ids.length == 0) {
+                ids = withRole(text.search(query), role);
+            }
+            return ids;
+        }
+
+        // Ids for a query that is a whole known email or phone number, null when it is neither.
+        // Only a shortcut: the same users also match the substring search, which the caller
+        // falls back to when this finds nothing
+        long[] exactMatches(String query) {
+            String q = TrigramIndex.normalize(query);
+            if (q.indexOf('@') > 0) {
+                Long id = emails.get(q);
+                return id != null ? new long[]{id} : null;
+            }
+            if (PHONE_QUERY.matcher(q).matches()) {
+                String phoneDigits = digits(q);
+                Set<Long> ids = phoneDigits.length() >= MIN_PHONE_DIGITS ? phones.get(phoneDigits) : null;
+                if (ids == null) {
+                    return null;
+                }
+                return ids.stream().sorted(Comparator.reverseOrder()).mapToLong(Long::longValue).toArray();
+            }
+            return null;
+        }
+
+        // Filters in place
+        private long[] withRole(long[] ids, User.Role role) {
+            if (ids == null || role == null) {
+                return ids;
+            }
+            int size = 0;
+            for (long id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.role() == role) {
+                    ids[size++] = id;
+                }
+            }
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
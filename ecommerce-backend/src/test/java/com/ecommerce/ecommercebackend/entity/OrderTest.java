@@ -0,0 +1,166 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import com.ecommerce.ecommercebackend.entity.Order.OrderStatus;
+import com.ecommerce.ecommercebackend.entity.Order.PaymentStatus;
+import com.ecommerce.ecommercebackend.exception.InvalidOrderTransitionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderTest {
+
+    @Test
+    void transitionTableMatchesTheLifecycle() {
+        assertThat(OrderStatus.PENDING.allowedTransitions()).containsExactlyInAnyOrder(
+                OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.ON_HOLD, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.CONFIRMED.allowedTransitions()).containsExactlyInAnyOrder(
+                OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.ON_HOLD, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.PROCESSING.allowedTransitions()).containsExactlyInAnyOrder(
+                OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.ON_HOLD, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.ON_HOLD.allowedTransitions()).containsExactlyInAnyOrder(
+                OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.SHIPPED.allowedTransitions()).containsExactly(OrderStatus.DELIVERED);
+        assertThat(OrderStatus.DELIVERED.allowedTransitions()).containsExactly(OrderStatus.REFUNDED);
+        assertThat(OrderStatus.CANCELLED.allowedTransitions()).containsExactly(OrderStatus.REFUNDED);
+        assertThat(OrderStatus.REFUNDED.allowedTransitions()).isEmpty();
+    }
+
+    @Test
+    void noStatusMovesToItself() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertThat(status.canTransitionTo(status)).isFalse();
+            assertThat(status.canTransitionTo(null)).isFalse();
+        }
+    }
+
+    @Test
+    void allowedTransitionsCannotBeModified() {
+        assertThatThrownBy(() -> OrderStatus.PENDING.allowedTransitions().add(OrderStatus.DELIVERED))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.DELIVERED)).isFalse();
+    }
+
+    @Test
+    void onlyOpenOrdersCanBeCancelledByCustomers() {
+        EnumSet<OrderStatus> cancellable = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.isCancellableByCustomer()) {
+                cancellable.add(status);
+            }
+        }
+
+        assertThat(cancellable).containsExactlyInAnyOrder(
+                OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING);
+        assertThat(order(OrderStatus.ON_HOLD, PaymentStatus.PENDING).canBeCancelled()).isFalse();
+        assertThat(OrderStatus.ON_HOLD.canTransitionTo(OrderStatus.CANCELLED)).isTrue();
+        assertThat(order(null, PaymentStatus.PENDING).canBeCancelled()).isFalse();
+    }
+
+    @Test
+    void allowedTransitionUpdatesTheStatusAndReturnsThePreviousOne() {
+        Order order = order(OrderStatus.PENDING, PaymentStatus.PENDING);
+
+        assertThat(order.transitionTo(OrderStatus.CONFIRMED)).isEqualTo(OrderStatus.PENDING);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void disallowedTransitionThrowsAndLeavesTheOrderUnchanged() {
+        Order order = order(OrderStatus.SHIPPED, PaymentStatus.PAID);
+
+        assertThat(order.transitionRejectionReason(OrderStatus.CANCELLED)).contains("SHIPPED", "CANCELLED");
+        assertThatThrownBy(() -> order.transitionTo(OrderStatus.CANCELLED))
+                .isInstanceOf(InvalidOrderTransitionException.class)
+                .hasMessageContaining("ORD-1");
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(order.getCancelledAt()).isNull();
+    }
+
+    @Test
+    void missingTargetIsRejected() {
+        Order order = order(OrderStatus.PENDING, PaymentStatus.PENDING);
+
+        assertThatThrownBy(() -> order.transitionTo(null))
+                .isInstanceOf(InvalidOrderTransitionException.class);
+    }
+
+    @Test
+    void stayingInTheSameStatusIsANoOp() {
+        Order order = order(OrderStatus.REFUNDED, PaymentStatus.REFUNDED);
+
+        assertThat(order.transitionRejectionReason(OrderStatus.REFUNDED)).isNull();
+        assertThat(order.transitionTo(OrderStatus.REFUNDED)).isEqualTo(OrderStatus.REFUNDED);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.REFUNDED);
+    }
+
+    @Test
+    void refundNeedsACapturedPayment() {
+        Order unpaid = order(OrderStatus.DELIVERED, PaymentStatus.PENDING);
+        assertThat(unpaid.transitionRejectionReason(OrderStatus.REFUNDED)).contains("PENDING");
+        assertThatThrownBy(() -> unpaid.transitionTo(OrderStatus.REFUNDED))
+                .isInstanceOf(InvalidOrderTransitionException.class);
+
+        Order paid = order(OrderStatus.DELIVERED, PaymentStatus.PAID);
+        paid.transitionTo(OrderStatus.REFUNDED);
+        assertThat(paid.getStatus()).isEqualTo(OrderStatus.REFUNDED);
+        assertThat(paid.getPaymentStatus()).isEqualTo(PaymentStatus.REFUNDED);
+
+        Order partlyRefunded = order(OrderStatus.CANCELLED, PaymentStatus.PARTIALLY_REFUNDED);
+        assertThat(partlyRefunded.transitionRejectionReason(OrderStatus.REFUNDED)).isNull();
+    }
+
+    @Test
+    void enteringShippedDeliveredAndCancelledStampsTheTime() {
+        LocalDateTime before = LocalDateTime.now();
+
+        Order order = order(OrderStatus.CONFIRMED, PaymentStatus.PAID);
+        order.transitionTo(OrderStatus.SHIPPED);
+        order.transitionTo(OrderStatus.DELIVERED);
+        assertThat(order.getShippedAt()).isAfterOrEqualTo(before);
+        assertThat(order.getDeliveredAt()).isAfterOrEqualTo(order.getShippedAt());
+        assertThat(order.getCancelledAt()).isNull();
+
+        Order cancelled = order(OrderStatus.PENDING, PaymentStatus.PENDING);
+        cancelled.transitionTo(OrderStatus.CANCELLED);
+        assertThat(cancelled.getCancelledAt()).isAfterOrEqualTo(before);
+        assertThat(cancelled.getShippedAt()).isNull();
+    }
+
+    @Test
+    void existingTimestampsAreKept() {
+        LocalDateTime earlier = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Order order = order(OrderStatus.ON_HOLD, PaymentStatus.PENDING);
+        order.setCancelledAt(earlier);
+
+        order.transitionTo(OrderStatus.CANCELLED);
+
+        assertThat(order.getCancelledAt()).isEqualTo(earlier);
+    }
+
+    @Test
+    void customerCancellationRefundsThePayment() {
+        Order order = order(OrderStatus.PROCESSING, PaymentStatus.PAID);
+
+        order.cancelOrder();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(order.getPaymentStatus()).isEqualTo(PaymentStatus.REFUNDED);
+        assertThat(order.getCancelledAt()).isNotNull();
+
+        Order held = order(OrderStatus.ON_HOLD, PaymentStatus.PAID);
+        held.cancelOrder();
+        assertThat(held.getStatus()).isEqualTo(OrderStatus.ON_HOLD);
+    }
+
+    private static Order order(OrderStatus status, PaymentStatus paymentStatus) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-1");
+        order.setStatus(status);
+        order.setPaymentStatus(paymentStatus);
+        return order;
+    }
+}
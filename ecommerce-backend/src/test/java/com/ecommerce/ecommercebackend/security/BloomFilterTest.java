@@ -0,0 +1,83 @@
+package com.ecommerce.ecommercebackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain("jti-1")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void neverReportsAnAddedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String jti = UUID.randomUUID().toString();
+            filter.add(jti);
+            added.add(jti);
+        }
+
+        assertThat(added).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("live-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // 1% target; allow for hash quality and the small sample
+        assertThat(falsePositives).isLessThan(probes * 2 / 100);
+    }
+
+    @Test
+    void toleratesTinyAndZeroSizes() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+        filter.add("only");
+
+        assertThat(filter.mightContain("only")).isTrue();
+    }
+
+    @Test
+    void concurrentAddsAreAllVisible() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    filter.add(thread + ":" + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(filter.mightContain(t + ":" + i)).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.ecommercebackend.security;
+
+import com.ecommerce.ecommercebackend.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification throughput (tokens/sec).
+ * legacyValidate reproduces the old path: key decoded and parser built per call, token parsed twice.
+ * cachedVerifyConcurrent hits the verified-token cache from several threads at once.
+ * Run with: main() from the IDE, or after test-compile with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "daf66e01593f61a15b857cf433aae03a005812b31234e149036bcc8dee755dbb";
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private CustomUserDetails principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedService = newService(10_000);
+        uncachedService = newService(0);
+        principal = new CustomUserDetails(42L, "bench@ecommerce.com", User.Role.CUSTOMER, 0);
+        token = cachedService.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        String username = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return username.equals(principal.getUsername()) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        return uncachedService.isTokenValid(token, principal);
+    }
+
+    @Benchmark
+    public boolean cachedVerify() {
+        return cachedService.isTokenValid(token, principal);
+    }
+
+    // Every request thread goes through the same cache
+    @Benchmark
+    @Threads(8)
+    public boolean cachedVerifyConcurrent() {
+        return cachedService.isTokenValid(token, principal);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtService newService(int cacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(service, "verifiedCacheSize", cacheSize);
+        service.init();
+        return service;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
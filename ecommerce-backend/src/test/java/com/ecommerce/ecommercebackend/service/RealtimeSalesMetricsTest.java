@@ -0,0 +1,120 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.admin.RealtimeSalesDTO;
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.service.RealtimeSalesMetrics.Bucket;
+import com.ecommerce.ecommercebackend.service.RealtimeSalesMetrics.Ring;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RealtimeSalesMetricsTest {
+
+    // An arbitrary second, far from zero so epochs are realistic
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void addsWithinOneUnitIntoTheSameBucket() {
+        Ring ring = new Ring(5, 1_000L);
+
+        ring.add(T0, 1, 1_000, 0, 0);
+        ring.add(T0 + 999, 2, 500, 1, 200);
+
+        assertThat(ring.sum(T0 + 999)).isEqualTo(new Bucket(T0 / 1_000, 3, 1_500, 1, 200));
+    }
+
+    @Test
+    void windowCoversExactlyTheLastSizeUnits() {
+        Ring ring = new Ring(5, 1_000L);
+        for (int second = 0; second < 5; second++) {
+            ring.add(T0 + second * 1_000L, 1, 100, 0, 0);
+        }
+
+        assertThat(ring.sum(T0 + 4_000).orders()).isEqualTo(5);
+        assertThat(ring.sum(T0 + 5_000).orders()).isEqualTo(4);
+        assertThat(ring.sum(T0 + 8_999).orders()).isEqualTo(1);
+        assertThat(ring.sum(T0 + 9_000).orders()).isZero();
+    }
+
+    @Test
+    void rolloverOverwritesTheStaleSlot() {
+        Ring ring = new Ring(5, 1_000L);
+        ring.add(T0, 3, 300, 0, 0);
+
+        // Same slot, one full turn later: the old bucket is replaced, not added to
+        ring.add(T0 + 5_000, 1, 100, 0, 0);
+
+        assertThat(ring.sum(T0 + 5_000)).isEqualTo(new Bucket((T0 + 5_000) / 1_000, 1, 100, 0, 0));
+    }
+
+    @Test
+    void staleSlotsAreSkippedLongAfterTheirWindow() {
+        Ring ring = new Ring(5, 1_000L);
+        ring.add(T0, 1, 100, 0, 0);
+        ring.add(T0 + 2_000, 1, 100, 0, 0);
+
+        // Many turns later, only the fresh write counts even though the old slots were never cleared
+        long later = T0 + 3_600_000;
+        ring.add(later, 1, 700, 0, 0);
+
+        assertThat(ring.sum(later).orders()).isEqualTo(1);
+        assertThat(ring.sum(later).cents()).isEqualTo(700);
+    }
+
+    @Test
+    void bucketsAheadOfTheReadTimeAreIgnored() {
+        Ring ring = new Ring(5, 1_000L);
+        ring.add(T0 + 2_000, 1, 100, 0, 0);
+
+        assertThat(ring.sum(T0).orders()).isZero();
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        Ring ring = new Ring(5, 60_000L);
+        long minute = T0 / 60_000 * 60_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ring.add(minute + i % 60_000, 1, 2, 0, 0);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ring.sum(minute).orders()).isEqualTo(80_000);
+        assertThat(ring.sum(minute).cents()).isEqualTo(160_000);
+    }
+
+    @Test
+    void snapshotReportsPlacedAndCancelledOrders() {
+        RealtimeSalesMetrics metrics = new RealtimeSalesMetrics();
+
+        metrics.recordOrderPlaced(order("19.99"));
+        metrics.recordOrderPlaced(order("5.01"));
+        metrics.recordOrderCancelled(order("5.01"));
+
+        RealtimeSalesDTO snapshot = metrics.snapshot();
+        for (RealtimeSalesDTO.WindowDTO window : List.of(
+                snapshot.getLast5Minutes(), snapshot.getLastHour(), snapshot.getLast24Hours())) {
+            assertThat(window.getOrders()).isEqualTo(2L);
+            assertThat(window.getRevenue()).isEqualByComparingTo("25.00");
+            assertThat(window.getCancelledOrders()).isEqualTo(1L);
+            assertThat(window.getCancelledRevenue()).isEqualByComparingTo("5.01");
+            assertThat(window.getNetRevenue()).isEqualByComparingTo("19.99");
+        }
+    }
+
+    private static Order order(String total) {
+        Order order = new Order();
+        order.setTotalAmount(new BigDecimal(total));
+        return order;
+    }
+}
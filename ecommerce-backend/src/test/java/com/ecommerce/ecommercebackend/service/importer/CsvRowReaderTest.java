@@ -0,0 +1,87 @@
+package com.ecommerce.ecommercebackend.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowReaderTest {
+
+    @Test
+    void splitsPlainRecords() throws IOException {
+        CsvRowReader reader = reader("sku,name\nA-1,Lamp\nA-2,Desk\n");
+
+        assertThat(reader.next()).containsExactly("sku", "name");
+        assertThat(reader.next()).containsExactly("A-1", "Lamp");
+        assertThat(reader.next()).containsExactly("A-2", "Desk");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void acceptsCrlfAndBareCr() throws IOException {
+        CsvRowReader reader = reader("a,b\r\nc,d\re,f");
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("c", "d");
+        assertThat(reader.next()).containsExactly("e", "f");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsLastRecordWithoutTrailingNewline() throws IOException {
+        CsvRowReader reader = reader("a,b\nc,d");
+
+        reader.next();
+        assertThat(reader.next()).containsExactly("c", "d");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void keepsSeparatorsQuotesAndLineBreaksInsideQuotes() throws IOException {
+        CsvRowReader reader = reader("\"Lamp, brass\",\"12\"\" shade\",\"line one\r\nline two\"\n");
+
+        assertThat(reader.next()).containsExactly("Lamp, brass", "12\" shade", "line one\r\nline two");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        CsvRowReader reader = reader("a,,\"\",\n");
+
+        assertThat(reader.next()).containsExactly("a", "", "", "");
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        CsvRowReader reader = reader("a\n\n   \r\n\nb\n");
+
+        assertThat(reader.next()).containsExactly("a");
+        assertThat(reader.next()).containsExactly("b");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void reportsTheLineARecordStartsOn() throws IOException {
+        CsvRowReader reader = reader("sku,description\nA-1,\"two\nlines\"\n\nA-2,x\r\nA-3,y\n");
+
+        reader.next();
+        assertThat(reader.recordLine()).isEqualTo(1);
+        reader.next();
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("A-2", "x");
+        assertThat(reader.recordLine()).isEqualTo(5);
+        reader.next();
+        assertThat(reader.recordLine()).isEqualTo(6);
+    }
+
+    @Test
+    void returnsNullForEmptyInput() throws IOException {
+        assertThat(reader("").next()).isNull();
+    }
+
+    private static CsvRowReader reader(String text) {
+        return new CsvRowReader(new StringReader(text));
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.ecommercebackend.service.importer;
+
+import com.ecommerce.ecommercebackend.service.importer.ProductImportService.Outcome;
+import com.ecommerce.ecommercebackend.service.importer.ProductImportService.ProductRow;
+import com.ecommerce.ecommercebackend.service.importer.ProductImportService.RawRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductImportServiceTest {
+
+    private static final Map<String, Long> CATEGORIES = Map.of("lighting", 3L, "desk lamps", 4L);
+
+    // ============= VALIDATION =============
+
+    @Test
+    void validatesACompleteRow() {
+        ProductRow row = ProductImportService.validate(raw(
+                "sku", " LMP-1 ", "name", "Brass lamp", "description", "  ", "price", "49.90",
+                "discountprice", "39.90", "stockquantity", "12", "category", "Lighting",
+                "imageurl", "https://cdn/lamp.jpg", "isactive", "no"), CATEGORIES);
+
+        assertThat(row.sku()).isEqualTo("LMP-1");
+        assertThat(row.description()).isNull();
+        assertThat(row.price()).isEqualByComparingTo("49.90");
+        assertThat(row.discountPrice()).isEqualByComparingTo("39.90");
+        assertThat(row.stockQuantity()).isEqualTo(12);
+        assertThat(row.categoryId()).isEqualTo(3L);
+        assertThat(row.imageUrl()).isEqualTo("https://cdn/lamp.jpg");
+        assertThat(row.active()).isFalse();
+    }
+
+    @Test
+    void defaultsOptionalColumns() {
+        ProductRow row = ProductImportService.validate(raw("sku", "LMP-1", "name", "Lamp", "price", "10"), CATEGORIES);
+
+        assertThat(row.stockQuantity()).isZero();
+        assertThat(row.categoryId()).isNull();
+        assertThat(row.discountPrice()).isNull();
+        assertThat(row.active()).isTrue();
+    }
+
+    @Test
+    void acceptsAlternativeColumnNames() {
+        ProductRow row = ProductImportService.validate(raw(
+                "sku", "LMP-1", "name", "Lamp", "price", "10", "stock", "5", "categoryslug", "desk lamps",
+                "active", "1"), CATEGORIES);
+
+        assertThat(row.stockQuantity()).isEqualTo(5);
+        assertThat(row.categoryId()).isEqualTo(4L);
+        assertThat(row.active()).isTrue();
+    }
+
+    @Test
+    void capsSkuAtTheColumnLength() {
+        String sku = "S".repeat(100);
+
+        assertThat(ProductImportService.validate(raw("sku", sku, "name", "Lamp", "price", "10"), CATEGORIES).sku())
+                .isEqualTo(sku);
+        assertRejected(raw("sku", sku + "S", "name", "Lamp", "price", "10"), "sku is longer than 100 characters");
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertRejected(raw("name", "Lamp", "price", "10"), "sku is required");
+        assertRejected(raw("sku", "A", "name", " ", "price", "10"), "name is required");
+        assertRejected(raw("sku", "A", "name", "Lamp"), "price must be greater than 0");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "0"), "price must be greater than 0");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "ten"), "price is not a number: ten");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "10", "discountprice", "11"),
+                "discountPrice must be between 0 and price");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "10", "stockquantity", "1.5"),
+                "stockQuantity is not a whole number: 1.5");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "10", "stockquantity", "-1"),
+                "stockQuantity cannot be negative");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "10", "category", "garden"),
+                "Unknown category: garden");
+        assertRejected(raw("sku", "A", "name", "Lamp", "price", "10", "isactive", "maybe"),
+                "isActive must be true or false: maybe");
+    }
+
+    // ============= CLASSIFICATION =============
+
+    @Test
+    void classifiesAgainstStoredValues() {
+        Map<String, ProductRow> current = new HashMap<>();
+        current.put("a-1", product("A-1", "Lamp", "10.00", "img-a"));
+        current.put("a-2", product("A-2", "Desk", "99.00", "img-b"));
+
+        List<Outcome> outcomes = ProductImportService.classify(List.of(
+                product("A-1", "Lamp", "10", "img-a"),
+                product("A-2", "Desk", "89.00", "img-b"),
+                product("A-3", "Chair", "45.00", null)), current);
+
+        assertThat(outcomes).containsExactly(Outcome.UNCHANGED, Outcome.UPDATED, Outcome.INSERTED);
+    }
+
+    @Test
+    void missingImageKeepsTheStoredOne() {
+        Map<String, ProductRow> current = new HashMap<>();
+        current.put("a-1", product("A-1", "Lamp", "10.00", "img-a"));
+
+        assertThat(ProductImportService.classify(List.of(product("A-1", "Lamp", "10.00", null)), current))
+                .containsExactly(Outcome.UNCHANGED);
+        assertThat(current.get("a-1").imageUrl()).isEqualTo("img-a");
+    }
+
+    @Test
+    void repeatedSkuIsComparedWithTheRowBeforeIt() {
+        List<Outcome> outcomes = ProductImportService.classify(List.of(
+                product("A-1", "Lamp", "10.00", "img-a"),
+                product("A-1", "Lamp", "10.00", null),
+                product("A-1", "Lamp", "12.00", null)), new HashMap<>());
+
+        assertThat(outcomes).containsExactly(Outcome.INSERTED, Outcome.UNCHANGED, Outcome.UPDATED);
+    }
+
+    @Test
+    void matchesSkusCaseInsensitively() {
+        Map<String, ProductRow> current = new HashMap<>();
+        current.put(ProductImportService.skuKey("LMP-1"), product("LMP-1", "Lamp", "10.00", "img-a"));
+
+        List<Outcome> outcomes = ProductImportService.classify(List.of(
+                product("lmp-1", "Lamp", "10.00", "img-a"),
+                product("Lmp-1", "Lamp", "11.00", "img-a")), current);
+
+        assertThat(outcomes).containsExactly(Outcome.UNCHANGED, Outcome.UPDATED);
+    }
+
+    // ============= BYTE ORDER MARK =============
+
+    @Test
+    void skipsALeadingByteOrderMark() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("\uFEFFsku,name\n"));
+
+        ProductImportService.skipByteOrderMark(reader);
+
+        assertThat(reader.readLine()).isEqualTo("sku,name");
+    }
+
+    @Test
+    void leavesInputWithoutByteOrderMarkAlone() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("sku,name\n"));
+
+        ProductImportService.skipByteOrderMark(reader);
+
+        assertThat(reader.readLine()).isEqualTo("sku,name");
+    }
+
+    private static RawRow raw(String... columnsAndValues) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            values.put(columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+        return new RawRow(2, values, null);
+    }
+
+    private static ProductRow product(String sku, String name, String price, String imageUrl) {
+        return new ProductRow(2, sku, name, null, new BigDecimal(price), null, 1, 3L, imageUrl, true);
+    }
+
+    private static void assertRejected(RawRow raw, String message) {
+        assertThatThrownBy(() -> ProductImportService.validate(raw, CATEGORIES))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.ecommercebackend.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsCaseInsensitivelyHighestIdFirst() {
+        TrigramIndex index = sealed();
+
+        assertThat(index.search("SMITH")).containsExactly(3, 1);
+        assertThat(index.search("  jane  ")).containsExactly(2);
+        assertThat(index.search("example.com")).containsExactly(3, 2, 1);
+        assertThat(index.search("nobody")).isEmpty();
+    }
+
+    @Test
+    void blankQueriesMatchNothing() {
+        TrigramIndex index = sealed();
+
+        assertThat(index.search("")).isEmpty();
+        assertThat(index.search("   ")).isEmpty();
+        assertThat(index.search(null)).isEmpty();
+    }
+
+    @Test
+    void shortQueriesScanTheDocuments() {
+        TrigramIndex index = sealed();
+
+        assertThat(index.search("sm")).containsExactly(3, 1);
+        assertThat(index.search("j")).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    void matchesDoNotSpanTwoFields() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "ab", "cd");
+        index.seal();
+
+        assertThat(index.search("abc")).isEmpty();
+        assertThat(index.search("bcd")).isEmpty();
+        assertThat(index.search("b c")).isEmpty();
+        assertThat(index.search("ab")).containsExactly(1);
+        assertThat(index.search("cd")).containsExactly(1);
+    }
+
+    @Test
+    void sealKeepsTheLastDocumentForARepeatedIdAndSortsById() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(5, "old name");
+        index.put(2, "other");
+        index.put(5, "new name");
+        index.seal();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("old")).isEmpty();
+        assertThat(index.search("name")).containsExactly(5);
+        assertThat(index.search("e")).containsExactly(5, 2);
+    }
+
+    @Test
+    void removeBeforeSealDropsTheDocument() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "alpha");
+        index.put(2, "alphabet");
+        index.remove(1);
+        index.seal();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("alpha")).containsExactly(2);
+    }
+
+    @Test
+    void putAfterSealShadowsTheSealedDocument() {
+        TrigramIndex index = sealed();
+
+        index.put(1, "John", "Brown", "john.brown@example.com");
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("smith")).containsExactly(3);
+        assertThat(index.search("brown")).containsExactly(1);
+        assertThat(index.search("john")).containsExactly(1);
+    }
+
+    @Test
+    void putAfterSealAddsNewIds() {
+        TrigramIndex index = sealed();
+
+        index.put(7, "Anna", "Smith", "anna@example.org");
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search("smith")).containsExactly(7, 3, 1);
+        assertThat(index.search("example.org")).containsExactly(7);
+    }
+
+    @Test
+    void removeAfterSealHidesSealedAndOverlayDocuments() {
+        TrigramIndex index = sealed();
+        index.put(7, "Anna", "Smith");
+
+        index.remove(1);
+        index.remove(7);
+        index.remove(42);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("smith")).containsExactly(3);
+        assertThat(index.search("sm")).containsExactly(3);
+    }
+
+    @Test
+    void reAddingARemovedIdMakesItVisibleAgain() {
+        TrigramIndex index = sealed();
+        index.remove(2);
+
+        index.put(2, "Jane", "Doe", "jane@example.com");
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("jane")).containsExactly(2);
+    }
+
+    @Test
+    void ignoresNullAndBlankFields() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, null, "  ", "Lamp");
+        index.seal();
+
+        assertThat(index.search("lamp")).containsExactly(1);
+    }
+
+    private static TrigramIndex sealed() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "John", "Smith", "john.smith@example.com");
+        index.put(2, "Jane", "Doe", "jane@example.com");
+        index.put(3, "Joe", "Smithers", "joe@example.com");
+        index.seal();
+        return index;
+    }
+}
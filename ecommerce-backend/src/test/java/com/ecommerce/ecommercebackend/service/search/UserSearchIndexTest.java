@@ -0,0 +1,101 @@
+package com.ecommerce.ecommercebackend.service.search;
+
+import com.ecommerce.ecommercebackend.entity.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchIndexTest {
+
+    @Test
+    void wholeEmailReturnsOnlyItsOwner() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        assertThat(snapshot.exactMatches(" Ann@Example.com ")).containsExactly(1);
+        assertThat(snapshot.search("ann@example.com", null)).containsExactly(1);
+        assertThat(snapshot.search("ann@example", null)).containsExactly(2, 1);
+    }
+
+    @Test
+    void unknownEmailFallsBackToSubstringSearch() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        assertThat(snapshot.exactMatches("nn@example.com")).isNull();
+        assertThat(snapshot.search("nn@example.com", null)).containsExactly(2, 1);
+    }
+
+    @Test
+    void wholePhoneNumberMatchesEveryAccountSharingIt() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        assertThat(snapshot.exactMatches("+1 (555) 010-2000")).containsExactly(3, 2);
+        assertThat(snapshot.exactMatches("15550102000")).containsExactly(3, 2);
+    }
+
+    @Test
+    void shortDigitRunsAreFragmentsNotPhoneNumbers() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        assertThat(snapshot.exactMatches("555")).isNull();
+        assertThat(snapshot.search("0102000", null)).containsExactly(3, 2);
+        assertThat(snapshot.search("555", null)).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    void namesAreNotExactQueries() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        assertThat(snapshot.exactMatches("Ann Lee")).isNull();
+        assertThat(snapshot.search("ann lee", null)).containsExactly(1);
+    }
+
+    @Test
+    void roleFilterAppliesToExactMatches() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        assertThat(snapshot.search("ann@example.com", User.Role.CUSTOMER)).containsExactly(1);
+        assertThat(snapshot.search("+1 555 010 2000", User.Role.ADMIN)).containsExactly(3);
+    }
+
+    @Test
+    void exactMatchOfAnotherRoleFallsThroughToSubstringMatches() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+        snapshot.put(4, "Max", "Admin", "max@example.com", null, User.Role.ADMIN);
+        snapshot.put(5, "Tom", "Max", "tom.max@example.com", null, User.Role.CUSTOMER);
+
+        assertThat(snapshot.search("max@example.com", User.Role.ADMIN)).containsExactly(4);
+        assertThat(snapshot.search("max@example.com", User.Role.CUSTOMER)).containsExactly(5);
+        assertThat(snapshot.search("max@example.com", User.Role.MODERATOR)).isEmpty();
+    }
+
+    @Test
+    void reIndexingReplacesTheOldEmailAndPhone() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        snapshot.put(2, "Joanne", "Park", "jo.park@example.com", "555-999-1234", User.Role.CUSTOMER);
+
+        assertThat(snapshot.exactMatches("joann@example.com")).isNull();
+        assertThat(snapshot.exactMatches("jo.park@example.com")).containsExactly(2);
+        assertThat(snapshot.exactMatches("15550102000")).containsExactly(3);
+        assertThat(snapshot.exactMatches("5559991234")).containsExactly(2);
+    }
+
+    @Test
+    void removedUsersAreNoLongerFound() {
+        UserSearchIndex.Snapshot snapshot = snapshot();
+
+        snapshot.remove(3);
+
+        assertThat(snapshot.exactMatches("15550102000")).containsExactly(2);
+        assertThat(snapshot.search("kim", null)).isEmpty();
+    }
+
+    private static UserSearchIndex.Snapshot snapshot() {
+        UserSearchIndex.Snapshot snapshot = new UserSearchIndex.Snapshot();
+        snapshot.put(1, "Ann", "Lee", "ann@example.com", "+1 555 010 1000", User.Role.CUSTOMER);
+        snapshot.put(2, "Joann", "Park", "joann@example.com", "+1 555 010 2000", User.Role.CUSTOMER);
+        snapshot.put(3, "Kim", "Ross", "kim@shop.example", "1-555-010-2000", User.Role.ADMIN);
+        snapshot.text.seal();
+        return snapshot;
+    }
+}
@@ -33,6 +33,12 @@ export const adminApi = {
     updateProduct: (id, data) => api.put(`/admin/products/${id}`, data),
     deleteProduct: (id) => api.delete(`/admin/products/${id}`),
     bulkUpdateProducts: (data) => api.post('/admin/products/bulk-update', data),
+    // Streamed file download: format is csv, ndjson or json
+    exportProducts: (productIds = [], format = 'csv') =>
+        api.get('/admin/products/export', {
+            params: { format, productIds: productIds.length > 0 ? productIds.join(',') : undefined },
+            responseType: 'blob'
+        }),
     uploadProductImage: (id, file) => {
         const formData = new FormData();
         formData.append('image', file);
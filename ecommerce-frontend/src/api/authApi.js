@@ -50,7 +50,8 @@ export const authApi = {
     },
 
     logout: async () => {
-        const response = await api.post('/auth/logout');
+        const refreshToken = localStorage.getItem('refreshToken');
+        const response = await api.post('/auth/logout', refreshToken ? { refreshToken } : undefined);
         return response.data;
     }
 };
\ No newline at end of file
@@ -1,9 +1,11 @@
 import api from './api';
 
 const reviewApi = {
-    // Get reviews for a product
-    getProductReviews: (productId, sortBy = 'newest') =>
-        api.get(`/reviews/product/${productId}?sortBy=${sortBy}`),
+    // Get one page of reviews for a product; pass the previous page's nextCursor to continue
+    // filter: 'all', 'verified' or 'with_images'
+    getProductReviews: (productId, sortBy = 'newest', cursor = null, size = 10, filter = 'all') =>
+        api.get(`/reviews/product/${productId}?sortBy=${sortBy}&filter=${filter}&size=${size}`
+            + (cursor ? `&cursor=${encodeURIComponent(cursor)}` : '')),
 
     // Get review statistics for a product
     getProductReviewStats: (productId) =>
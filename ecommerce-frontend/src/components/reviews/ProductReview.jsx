@@ -6,8 +6,18 @@ import ReviewList from './ReviewList';
 import ReviewForm from './ReviewForm';
 import reviewApi from '../../api/reviewApi';
 
+// Server-side review filter for each tab
+const TAB_FILTERS = {
+    reviews: 'all',
+    verified: 'verified',
+    'with-photos': 'with_images'
+};
+
 const ProductReviews = ({ productId, currentUserId }) => {
     const [reviews, setReviews] = useState([]);
+    const [sortBy, setSortBy] = useState('newest');
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [stats, setStats] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
@@ -19,11 +29,12 @@ const ProductReviews = ({ productId, currentUserId }) => {
         fetchStats();
     }, [productId]);
 
-    const fetchReviews = async () => {
+    const fetchReviews = async (sort = sortBy, tab = activeTab) => {
         try {
             setLoading(true);
-            const response = await reviewApi.getProductReviews(productId);
-            setReviews(response.data);
+            const response = await reviewApi.getProductReviews(productId, sort, null, 10, TAB_FILTERS[tab] || 'all');
+            setReviews(response.data.content || []);
+            setNextCursor(response.data.nextCursor);
             setError(null);
         } catch (error) {
             console.error('Error fetching reviews:', error);
@@ -33,6 +44,32 @@ const ProductReviews = ({ productId, currentUserId }) => {
         }
     };
 
+    const loadMoreReviews = async () => {
+        try {
+            setLoadingMore(true);
+            const response = await reviewApi.getProductReviews(productId, sortBy, nextCursor, 10,
+                TAB_FILTERS[activeTab] || 'all');
+            setReviews(prev => [...prev, ...(response.data.content || [])]);
+            setNextCursor(response.data.nextCursor);
+        } catch (error) {
+            console.error('Error fetching more reviews:', error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
+    const handleSortChange = (sort) => {
+        setSortBy(sort);
+        fetchReviews(sort);
+    };
+
+    const handleTabChange = (tab) => {
+        setActiveTab(tab);
+        if (TAB_FILTERS[tab]) {
+            fetchReviews(sortBy, tab);
+        }
+    };
+
     const fetchStats = async () => {
         try {
             const response = await reviewApi.getProductReviewStats(productId);
@@ -46,9 +83,34 @@ const ProductReviews = ({ productId, currentUserId }) => {
         setReviews(prev => [newReview, ...prev]);
         fetchStats();
         setShowReviewForm(false);
-        setActiveTab('reviews');
+        if (activeTab !== 'reviews') {
+            handleTabChange('reviews');
+        }
     };
 
+    const renderReviews = () => (
+        error ? (
+            <Alert variant="danger">{error}</Alert>
+        ) : (
+            <>
+                <ReviewList
+                    reviews={reviews}
+                    currentUserId={currentUserId}
+                    onReviewsUpdate={() => fetchReviews()}
+                    sortBy={sortBy}
+                    onSortChange={handleSortChange}
+                />
+                {nextCursor && (
+                    <div className="text-center mt-3">
+                        <Button variant="outline-primary" onClick={loadMoreReviews} disabled={loadingMore}>
+                            {loadingMore ? <Spinner animation="border" size="sm" /> : 'Load more reviews'}
+                        </Button>
+                    </div>
+                )}
+            </>
+        )
+    );
+
     const RatingDistribution = () => {
         if (!stats?.ratingDistribution) return null;
 
@@ -178,35 +240,19 @@ const ProductReviews = ({ productId, currentUserId }) => {
             {/* Tabs */}
             <Tabs
                 activeKey={activeTab}
-                onSelect={(k) => setActiveTab(k)}
+                onSelect={handleTabChange}
                 className="mb-4"
             >
                 <Tab eventKey="reviews" title="All Reviews">
-                    {error ? (
-                        <Alert variant="danger">{error}</Alert>
-                    ) : (
-                        <ReviewList
-                            reviews={reviews}
-                            currentUserId={currentUserId}
-                            onReviewsUpdate={fetchReviews}
-                        />
-                    )}
+                    {activeTab === 'reviews' && renderReviews()}
                 </Tab>
 
                 <Tab eventKey="verified" title="Verified Purchases">
-                    <ReviewList
-                        reviews={reviews.filter(r => r.isVerifiedPurchase)}
-                        currentUserId={currentUserId}
-                        onReviewsUpdate={fetchReviews}
-                    />
+                    {activeTab === 'verified' && renderReviews()}
                 </Tab>
 
                 <Tab eventKey="with-photos" title="With Photos">
-                    <ReviewList
-                        reviews={reviews.filter(r => r.images && r.images.length > 0)}
-                        currentUserId={currentUserId}
-                        onReviewsUpdate={fetchReviews}
-                    />
+                    {activeTab === 'with-photos' && renderReviews()}
                 </Tab>
             </Tabs>
         </Container>
@@ -304,13 +304,16 @@ const ReviewItem = ({ review, currentUserId, onVote, onReport, onDelete }) => {
     );
 };
 
-const ReviewList = ({ reviews, currentUserId, onReviewsUpdate }) => {
-    const [sortBy, setSortBy] = useState('newest');
+// With onSortChange the reviews arrive already sorted by the server; otherwise they are sorted here
+const ReviewList = ({ reviews, currentUserId, onReviewsUpdate, sortBy: serverSortBy, onSortChange }) => {
+    const [localSortBy, setLocalSortBy] = useState('newest');
+    const sortBy = onSortChange ? serverSortBy : localSortBy;
+    const setSortBy = onSortChange || setLocalSortBy;
 
-    const sortedReviews = [...reviews].sort((a, b) => {
+    const sortedReviews = onSortChange ? reviews : [...reviews].sort((a, b) => {
         switch (sortBy) {
             case 'helpful':
-                return (b.helpfulVotes || 0) - (a.helpfulVotes || 0);
+                return (b.helpfulCount || 0) - (a.helpfulCount || 0);
             case 'rating_high':
                 return (b.rating || 0) - (a.rating || 0);
             case 'rating_low':
@@ -183,15 +183,15 @@ const Products = () => {
 
     const handleExport = async () => {
         try {
-            const response = await adminApi.exportProducts(selectedProducts);
-            const dataStr = JSON.stringify(response.data, null, 2);
-            const dataUri = 'data:application/json;charset=utf-8,'+ encodeURIComponent(dataStr);
-            const exportFileDefaultName = `products_export_${new Date().toISOString()}.json`;
+            const response = await adminApi.exportProducts(selectedProducts, 'csv');
+            const url = URL.createObjectURL(response.data);
+            const exportFileDefaultName = `products_export_${new Date().toISOString()}.csv`;
 
             const linkElement = document.createElement('a');
-            linkElement.setAttribute('href', dataUri);
+            linkElement.setAttribute('href', url);
             linkElement.setAttribute('download', exportFileDefaultName);
             linkElement.click();
+            URL.revokeObjectURL(url);
         } catch (error) {
             console.error('Error exporting products:', error);
         }
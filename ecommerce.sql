@@ -191,7 +191,12 @@ CREATE TABLE reviews (
     user_id BIGINT NOT NULL,
     rating INT CHECK (rating >= 1 AND rating <= 5),
     comment TEXT,
+    helpful_votes INT NOT NULL DEFAULT 0,
+    unhelpful_votes INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_reviews_product_helpful (product_id, helpful_votes, id),
+    INDEX idx_reviews_product_rating (product_id, rating, id),
+    INDEX idx_reviews_product_created (product_id, created_at, id),
     FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
@@ -213,6 +218,7 @@ DROP TABLE order_status_history;
 CREATE TABLE order_status_history (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     order_id BIGINT NOT NULL,
+    from_status VARCHAR(20),
     status VARCHAR(50) NOT NULL,
     notes TEXT,
     created_by BIGINT,